@@ -0,0 +1,30 @@
+package software.amazon.applicationinsights.application;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes the callback delay of the next poll. The delay starts at the initial wait seconds
+ * and backs off exponentially with jitter while consecutive callbacks find the work unfinished,
+ * up to the max wait seconds. The number of consecutive unfinished polls is kept in CallbackContext.
+ */
+public class AdaptivePollingScheduler {
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+
+    public static int nextCallbackDelaySeconds(Step step, Integer pollAttempts) {
+        return nextCallbackDelaySeconds(step.getCallBackWaitSeconds(), step.getMaxCallBackWaitSeconds(), pollAttempts);
+    }
+
+    public static int nextCallbackDelaySeconds(int initialWaitSeconds, int maxWaitSeconds, Integer pollAttempts) {
+        int attempts = pollAttempts == null ? 0 : Math.min(pollAttempts, MAX_BACKOFF_EXPONENT);
+        long backoffSeconds = Math.min((long) initialWaitSeconds << attempts, maxWaitSeconds);
+        if (backoffSeconds <= initialWaitSeconds) {
+            return initialWaitSeconds;
+        }
+
+        // equal jitter: keep half of the backoff and randomize the other half,
+        // so that polls of stacks deployed together spread out over time
+        int halfBackoffSeconds = (int) (backoffSeconds / 2);
+        int delaySeconds = halfBackoffSeconds + ThreadLocalRandom.current().nextInt(halfBackoffSeconds + 1);
+        return Math.max(delaySeconds, initialWaitSeconds);
+    }
+}
@@ -0,0 +1,22 @@
+package software.amazon.applicationinsights.application;
+
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsAsyncClient;
+
+/**
+ * Async client shared by the handlers of the container. The Read and List handlers both read models
+ * asynchronously, so they share one client and its connection pool instead of creating one each.
+ * The client is created when it is first used.
+ */
+public final class ApplicationInsightsClients {
+
+    private ApplicationInsightsClients() {
+    }
+
+    public static ApplicationInsightsAsyncClient getAsyncClient() {
+        return AsyncClientHolder.ASYNC_CLIENT;
+    }
+
+    private static class AsyncClientHolder {
+        private static final ApplicationInsightsAsyncClient ASYNC_CLIENT = ApplicationInsightsAsyncClient.create();
+    }
+}
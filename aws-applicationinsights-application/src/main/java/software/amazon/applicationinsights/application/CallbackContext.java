@@ -6,15 +6,18 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class CallbackContext {
-    private String currentStep;
     private Integer stabilizationRetriesRemaining;
-    private List<String> unprocessedItems;
-    private String processingItem;
+    // step name -> state of the steps which are running, or planned and waiting for their dependencies
+    private Map<String, StepContext> stepContexts;
+    private List<String> finishedSteps;
+    // consecutive transient failures of the existence check made before any step runs,
+    // set while the check is retried and cleared once it went through
+    private Integer existenceCheckAttempts;
 }
@@ -0,0 +1,91 @@
+package software.amazon.applicationinsights.application;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of asynchronous calls in flight. Calls submitted beyond the limit are queued and started,
+ * in the order they were submitted, as soon as one of the calls in flight completes. No thread is blocked
+ * while waiting for a slot. The limit adapts to throttling: it is halved whenever a call is throttled and grows
+ * back by one with every call which succeeds, up to the max concurrent calls.
+ */
+public class ConcurrencyLimiter {
+
+    private final int maxConcurrentCalls;
+    private final Queue<Runnable> queuedCalls = new ArrayDeque<>();
+    private int concurrencyLimit;
+    private int concurrentCalls;
+
+    public ConcurrencyLimiter(final int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.concurrencyLimit = maxConcurrentCalls;
+    }
+
+    public <T> CompletableFuture<T> submit(final Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable startCall = () -> {
+            CompletableFuture<T> callFuture;
+            try {
+                callFuture = call.get();
+            } catch (RuntimeException e) {
+                callFuture = new CompletableFuture<>();
+                callFuture.completeExceptionally(e);
+            }
+            callFuture.whenComplete((response, throwable) -> {
+                // free the slot before the caller's continuations run, they may submit more calls
+                release(throwable);
+                if (throwable != null) {
+                    result.completeExceptionally(throwable);
+                } else {
+                    result.complete(response);
+                }
+            });
+        };
+
+        boolean startNow;
+        synchronized (this) {
+            startNow = concurrentCalls < concurrencyLimit;
+            if (startNow) {
+                concurrentCalls++;
+            } else {
+                queuedCalls.add(startCall);
+            }
+        }
+        if (startNow) {
+            startCall.run();
+        }
+        return result;
+    }
+
+    public synchronized int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    private void release(Throwable throwable) {
+        List<Runnable> nextCalls = new ArrayList<>();
+        synchronized (this) {
+            if (throwable == null) {
+                concurrencyLimit = Math.min(maxConcurrentCalls, concurrencyLimit + 1);
+            } else if (isThrottling(throwable)) {
+                concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+            }
+            concurrentCalls--;
+            while (concurrentCalls < concurrencyLimit && !queuedCalls.isEmpty()) {
+                nextCalls.add(queuedCalls.poll());
+                concurrentCalls++;
+            }
+        }
+        nextCalls.forEach(Runnable::run);
+    }
+
+    private static boolean isThrottling(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+        return cause instanceof Exception && ExceptionMapper.isThrottling((Exception) cause);
+    }
+}
@@ -3,6 +3,30 @@ package software.amazon.applicationinsights.application;
 public class Constants {
     public static final int WAIT_CALLBACK_DELAY_SECONDS = 10;
     public static final int TRANSITION_CALLBACK_DELAY_SECONDS = 1;
+    public static final long IN_INVOCATION_POLL_INTERVAL_MILLIS = 500;
+    public static final int MAX_LITERAL_ITEMS_IN_CALLBACK_CONTEXT = 20;
+    public static final int STEP_ITEM_UNIVERSE_CACHE_MAX_ENTRIES = 50;
+    public static final String INVOCATION_TIMEOUT_SECONDS_VARIABLE = "INVOCATION_TIMEOUT_SECONDS";
+    public static final int DEFAULT_INVOCATION_TIMEOUT_SECONDS = 60;
+    public static final long INVOCATION_SAFETY_MARGIN_MILLIS = 20000;
+    public static final int RETRY_CALLBACK_DELAY_SECONDS = 5;
+    public static final int MAX_RETRY_CALLBACK_DELAY_SECONDS = 120;
+    public static final int MAX_ITEM_RETRY_ATTEMPTS = 8;
+    public static final String CONTAINER_STATE_CACHE_TTL_SECONDS_VARIABLE = "CONTAINER_STATE_CACHE_TTL_SECONDS";
+    public static final int CONTAINER_STATE_CACHE_MAX_ENTRIES = 200;
+    public static final int RECOMMENDATION_CACHE_MAX_ENTRIES = 50;
+    public static final int RECOMMENDATION_CACHE_TTL_SECONDS = 300;
+    public static final int READ_MODEL_MAX_CONCURRENT_READS = 8;
+    public static final int PARALLEL_MAX_CONCURRENT_READS = 8;
+    public static final int LIST_MAX_CONCURRENT_READS = 16;
+    public static final String LIST_PROJECTION_VARIABLE = "LIST_PROJECTION";
+    public static final String IDENTIFIERS_LIST_PROJECTION = "IDENTIFIERS";
+    public static final String READ_CALLS_PER_SECOND_VARIABLE = "READ_CALLS_PER_SECOND";
+    public static final String MUTATING_CALLS_PER_SECOND_VARIABLE = "MUTATING_CALLS_PER_SECOND";
+    public static final double DEFAULT_READ_CALLS_PER_SECOND = 20;
+    public static final double DEFAULT_MUTATING_CALLS_PER_SECOND = 5;
+    public static final int READ_CALLS_BURST = 20;
+    public static final int MUTATING_CALLS_BURST = 5;
     public static final String APP_CREATION_FINISHED_LIFECYCLE = "NOT_CONFIGURED";
     public static final String CONFIGURATION_FINISHED_LIFECYCLE = "ACTIVE";
     public static final String DEFAULT_TIER = "DEFAULT";
@@ -0,0 +1,93 @@
+package software.amazon.applicationinsights.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Keeps listings of application state across the invocations served by a warm container, keyed by the
+ * account and region of the invocation and by resource group. Entries expire after a short time to live and
+ * the least recently used ones are evicted once the cache is full. Our own writes to a resource group drop its
+ * entries. Changes made outside of this container, or by the service itself such as the components it discovers
+ * for account based applications, are only picked up once the entries expire, so entries may be stale and
+ * are not used to verify that work has finished.
+ */
+public class ContainerStateCache {
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LinkedHashMap<List<Object>, CachedResponse> entries;
+
+    public ContainerStateCache(final long ttlMillis, final int maxEntries) {
+        this(ttlMillis, maxEntries, System::currentTimeMillis);
+    }
+
+    ContainerStateCache(final long ttlMillis, final int maxEntries, final LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<List<Object>, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0;
+    }
+
+    public synchronized AwsResponse get(final String scope, final String resourceGroupName, final AwsRequest request) {
+        List<Object> key = Arrays.asList(scope, resourceGroupName, request);
+        CachedResponse cachedResponse = entries.get(key);
+        if (cachedResponse == null) {
+            return null;
+        }
+        if (clock.getAsLong() >= cachedResponse.expiresAtMillis) {
+            entries.remove(key);
+            return null;
+        }
+
+        return cachedResponse.response;
+    }
+
+    public synchronized void put(
+            final String scope,
+            final String resourceGroupName,
+            final AwsRequest request,
+            final AwsResponse response) {
+        if (isEnabled()) {
+            entries.put(Arrays.asList(scope, resourceGroupName, request),
+                    new CachedResponse(response, clock.getAsLong() + ttlMillis));
+        }
+    }
+
+    /**
+     * Drops the stale entries of the resource group in every account and region, or the stale entries
+     * of all resource groups when the resource group is not known.
+     */
+    public synchronized void invalidate(final String resourceGroupName, final Predicate<AwsRequest> isStale) {
+        entries.keySet().removeIf(key -> (resourceGroupName == null || resourceGroupName.equals(key.get(1)))
+                && isStale.test((AwsRequest) key.get(2)));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static class CachedResponse {
+        private final AwsResponse response;
+        private final long expiresAtMillis;
+
+        CachedResponse(AwsResponse response, long expiresAtMillis) {
+            this.response = response;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
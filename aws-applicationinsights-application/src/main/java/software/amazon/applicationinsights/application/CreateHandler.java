@@ -4,7 +4,7 @@ import software.amazon.applicationinsights.application.StepWorkflow.AppCreationS
 import software.amazon.applicationinsights.application.StepWorkflow.ComponentConfigurationStepWorkflow;
 import software.amazon.applicationinsights.application.StepWorkflow.ComponentCreationStepWorkflow;
 import software.amazon.applicationinsights.application.StepWorkflow.DefaultComponentConfigurationStepWorkflow;
-import software.amazon.applicationinsights.application.StepWorkflow.LogPatternCreationStepWorkflow;
+import software.amazon.applicationinsights.application.StepWorkflow.LogPatternReconciliationStepWorkflow;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.awssdk.services.applicationinsights.model.ResourceInUseException;
 import software.amazon.awssdk.services.applicationinsights.model.ValidationException;
@@ -15,11 +15,11 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static software.amazon.applicationinsights.application.Constants.ACCOUNT_BASED_GROUPING_TYPE;
 import static software.amazon.applicationinsights.application.Constants.SHADOW_RG_PREFIX_ACCOUNT_BASED;
-import static software.amazon.applicationinsights.application.Constants.TRANSITION_CALLBACK_DELAY_SECONDS;
 
 public class CreateHandler extends BaseHandler<CallbackContext> {
     static final int CREATE_STATUS_POLL_RETRIES = 1800;
@@ -33,7 +33,12 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
                                                                        final CallbackContext callbackContext,
                                                                        final Logger logger) {
 
+        // the budget starts with the invocation, so the checks and planning below count against it
+        final ExecutionBudget executionBudget = ExecutionBudget.forInvocation();
+        InvocationScopedApi.bindExecutionBudget(proxy, executionBudget);
         final ResourceModel model = request.getDesiredResourceState();
+        // consecutive callbacks of the stack may reuse the listings of state this container just wrote
+        InvocationScopedApi.bindInvocationScope(proxy, request.getAwsAccountId(), request.getRegion());
 
         logger.log(String.format("Create Handler called with resourceGroupName %s", model.getResourceGroupName()));
         logger.log("Resource Model: " + model.toString());
@@ -46,7 +51,7 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
             return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
         }
 
-        final CallbackContext newCallbackContext = callbackContext == null ?
+        CallbackContext newCallbackContext = callbackContext == null ?
                 CallbackContext.builder().stabilizationRetriesRemaining(CREATE_STATUS_POLL_RETRIES).build() :
                 callbackContext;
 
@@ -70,117 +75,67 @@ public class CreateHandler extends BaseHandler<CallbackContext> {
                 model.getResourceGroupName()));
 
         // check if application is already created for resource group before the call
-        if (callbackContext == null && HandlerHelper.doesApplicationExist(model.getResourceGroupName(), proxy, applicationInsightsClient)) {
-            final Exception ex = ResourceInUseException.builder()
-                    .message("Application Insights application already exists for resource group: " + model.getResourceGroupName())
-                    .build();
-            return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
-        }
+        // the check is made on the first invocation, and again on callbacks while it fails transiently
+        if (callbackContext == null || newCallbackContext.getExistenceCheckAttempts() != null) {
+            final boolean applicationExists;
+            try {
+                applicationExists = HandlerHelper.doesApplicationExist(model.getResourceGroupName(), proxy, applicationInsightsClient);
+            } catch (Exception ex) {
+                logger.log(String.format("doesApplicationExist failed with exception %s", ex.getMessage()));
+                return ExceptionMapper.toProgressEvent(ex, model, newCallbackContext);
+            }
+            newCallbackContext = newCallbackContext.toBuilder().existenceCheckAttempts(null).build();
 
-        String currentStep = newCallbackContext.getCurrentStep();
+            if (applicationExists) {
+                final Exception ex = ResourceInUseException.builder()
+                        .message("Application Insights application already exists for resource group: " + model.getResourceGroupName())
+                        .build();
+                return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
+            }
+        }
 
         if (newCallbackContext.getStabilizationRetriesRemaining() == 0) {
             throw new RuntimeException(CREATE_TIMED_OUT_MESSAGE);
         }
 
-        if (currentStep == null) {
-            // go to APP_CREATION step
-            return ProgressEvent.defaultInProgressHandler(
-                    CallbackContext.builder()
-                            .currentStep(Step.APP_CREATION.name())
-                            .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                            .processingItem(null)
-                            .unprocessedItems(new ArrayList<>(Arrays.asList(model.getResourceGroupName())))
-                            .build(),
-                    Step.APP_CREATION.getCallBackWaitSeconds(),
-                    model);
-        } else if (currentStep.equals(Step.APP_CREATION.name())) {
-            // go to COMPONENT_CREATION step
-            List<String> allCustomComponentNamesToCreate = HandlerHelper.getAllCustomComponentNamesToCreate(model);
-            ProgressEvent<ResourceModel, CallbackContext> componentCreationStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.COMPONENT_CREATION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(allCustomComponentNamesToCreate)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new AppCreationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, componentCreationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.COMPONENT_CREATION.name())) {
-            // go to LOG_PATTERN_CREATION step
-            List<String> allLogPatternIdentifierToCreate = HandlerHelper.getModelLogPatternIdentifiers(model);
-            ProgressEvent<ResourceModel, CallbackContext> logPatternCreationStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.LOG_PATTERN_CREATION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(allLogPatternIdentifierToCreate)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new ComponentCreationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, logPatternCreationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.LOG_PATTERN_CREATION.name())) {
-            // go to COMPONENT_CONFIGURATION step
-            List<String> allComponentNamesWithMonitoringSettings = HandlerHelper.getAllComponentNamesWithMonitoringSettings(model, logger);
-            logger.log("All Component Names With Monitoring Settings: " + allComponentNamesWithMonitoringSettings.toString());
-            ProgressEvent<ResourceModel, CallbackContext> componentConfigurationStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.COMPONENT_CONFIGURATION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(allComponentNamesWithMonitoringSettings)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new LogPatternCreationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, componentConfigurationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.COMPONENT_CONFIGURATION.name())) {
-            // if not all components have monitoring settings,
-            // go to DEFAULT_COMPONENT_CONFIGURATION step if auto config is enabled,
-            // otherwise succeed
-            ProgressEvent<ResourceModel, CallbackContext> successOrDefaultConfigurationStepInitProgressEvent =
-                    ProgressEvent.defaultSuccessHandler(model);
-
-            Boolean autoConfigurationEnabled = model.getAutoConfigurationEnabled();
-            if (autoConfigurationEnabled != null && autoConfigurationEnabled == true) {
-                List<String> defaultConfigComponentNames = HandlerHelper.getApplicationAllComponentNames(
-                        model, proxy, applicationInsightsClient);
-                List<String> allComponentNamesWithMonitoringSettings = HandlerHelper.getAllComponentNamesWithMonitoringSettings(model, logger);
-                defaultConfigComponentNames.removeAll(allComponentNamesWithMonitoringSettings);
-
-                if (defaultConfigComponentNames != null && !defaultConfigComponentNames.isEmpty()) {
-                    successOrDefaultConfigurationStepInitProgressEvent =
-                            ProgressEvent.defaultInProgressHandler(
-                                    CallbackContext.builder()
-                                            .currentStep(Step.DEFAULT_COMPONENT_CONFIGURATION.name())
-                                            .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                            .processingItem(null)
-                                            .unprocessedItems(defaultConfigComponentNames)
-                                            .build(),
-                                    TRANSITION_CALLBACK_DELAY_SECONDS,
-                                    model);
-                }
-            }
-
-            return new ComponentConfigurationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, successOrDefaultConfigurationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.DEFAULT_COMPONENT_CONFIGURATION.name())) {
-            ProgressEvent<ResourceModel, CallbackContext> successInitProgressEvent =
-                    ProgressEvent.defaultSuccessHandler(model);
+        // COMPONENT_CREATION and LOG_PATTERN_RECONCILIATION only depend on the application, run them at the same time
+        return new StepGraph(ItemUniverse.fromModels(model))
+                .step(Step.APP_CREATION,
+                        Collections.emptyList(),
+                        () -> new ArrayList<>(Arrays.asList(model.getResourceGroupName())),
+                        stepContext -> new AppCreationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .step(Step.COMPONENT_CREATION,
+                        Arrays.asList(Step.APP_CREATION),
+                        () -> HandlerHelper.getAllCustomComponentNamesToCreate(model),
+                        stepContext -> new ComponentCreationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .step(Step.LOG_PATTERN_RECONCILIATION,
+                        Arrays.asList(Step.APP_CREATION),
+                        () -> HandlerHelper.getModelLogPatternIdentifiers(model),
+                        stepContext -> new LogPatternReconciliationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .step(Step.COMPONENT_CONFIGURATION,
+                        Arrays.asList(Step.COMPONENT_CREATION, Step.LOG_PATTERN_RECONCILIATION),
+                        () -> HandlerHelper.getAllComponentNamesWithMonitoringSettings(model, logger),
+                        stepContext -> new ComponentConfigurationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .step(Step.DEFAULT_COMPONENT_CONFIGURATION,
+                        Arrays.asList(Step.COMPONENT_CONFIGURATION),
+                        () -> getDefaultConfigComponentNames(model, proxy, logger),
+                        stepContext -> new DefaultComponentConfigurationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .execute(model, newCallbackContext, executionBudget, logger);
+    }
 
-            return new DefaultComponentConfigurationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, successInitProgressEvent)
-                    .execute();
-        } else {
-            return ProgressEvent.defaultSuccessHandler(model);
+    // if auto config is enabled, components without monitoring settings get the default configuration
+    private List<String> getDefaultConfigComponentNames(
+            final ResourceModel model,
+            final AmazonWebServicesClientProxy proxy,
+            final Logger logger) {
+        Boolean autoConfigurationEnabled = model.getAutoConfigurationEnabled();
+        if (autoConfigurationEnabled == null || !autoConfigurationEnabled) {
+            return new ArrayList<>();
         }
+
+        List<String> defaultConfigComponentNames = HandlerHelper.getApplicationAllComponentNames(
+                model, proxy, applicationInsightsClient);
+        defaultConfigComponentNames.removeAll(HandlerHelper.getAllComponentNamesWithMonitoringSettings(model, logger));
+        return defaultConfigComponentNames;
     }
 }
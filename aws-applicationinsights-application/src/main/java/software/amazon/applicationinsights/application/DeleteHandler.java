@@ -1,5 +1,6 @@
 package software.amazon.applicationinsights.application;
 
+import software.amazon.applicationinsights.application.StepWorkflow.AppDeletionStepWorkflow;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -7,13 +8,16 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
 import static software.amazon.applicationinsights.application.Constants.ACCOUNT_BASED_GROUPING_TYPE;
 import static software.amazon.applicationinsights.application.Constants.SHADOW_RG_PREFIX_ACCOUNT_BASED;
-import static software.amazon.applicationinsights.application.Constants.WAIT_CALLBACK_DELAY_SECONDS;
 
 public class DeleteHandler extends BaseHandler<CallbackContext> {
 
-    static final int STATUS_POLL_RETRIES = 10;
+    static final int STATUS_POLL_RETRIES = 300;
     static final String TIMED_OUT_MESSAGE = "Timed out waiting for application deletion.";
 
     private final ApplicationInsightsClient applicationInsightsClient = ApplicationInsightsClient.create();
@@ -24,6 +28,8 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
                                                                        final CallbackContext callbackContext,
                                                                        final Logger logger) {
 
+        final ExecutionBudget executionBudget = ExecutionBudget.forInvocation();
+        InvocationScopedApi.bindExecutionBudget(proxy, executionBudget);
         final ResourceModel model = request.getDesiredResourceState();
 
         logger.log(String.format("Delete Handler called with resourceGroupName %s", model.getResourceGroupName()));
@@ -37,19 +43,27 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
             }
         }
 
-        final CallbackContext newCallbackContext = callbackContext == null ?
+        CallbackContext newCallbackContext = callbackContext == null ?
                 CallbackContext.builder().stabilizationRetriesRemaining(STATUS_POLL_RETRIES).build() :
                 callbackContext;
 
-        if (callbackContext == null) {
-            if (!HandlerHelper.doesApplicationExist(model.getResourceGroupName(), proxy, applicationInsightsClient)) {
+        // the check is made on the first invocation, and again on callbacks while it fails transiently
+        if (callbackContext == null || newCallbackContext.getExistenceCheckAttempts() != null) {
+            final boolean applicationExists;
+            try {
+                applicationExists = HandlerHelper.doesApplicationExist(model.getResourceGroupName(), proxy, applicationInsightsClient);
+            } catch (Exception ex) {
+                logger.log(String.format("doesApplicationExist failed with exception %s", ex.getMessage()));
+                return ExceptionMapper.toProgressEvent(ex, model, newCallbackContext);
+            }
+            newCallbackContext = newCallbackContext.toBuilder().existenceCheckAttempts(null).build();
+
+            if (!applicationExists) {
                 // if the application does not exit, fail the delete
                 final Exception ex = ResourceNotFoundException.builder()
                         .message("Application does not exit for resource group " + model.getResourceGroupName())
                         .build();
                 return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
-            } else {
-                HandlerHelper.deleteApplicationInsightsApplication(model, proxy, applicationInsightsClient);
             }
         }
 
@@ -57,15 +71,15 @@ public class DeleteHandler extends BaseHandler<CallbackContext> {
             throw new RuntimeException(TIMED_OUT_MESSAGE);
         }
 
-        if (!HandlerHelper.doesApplicationExist(model.getResourceGroupName(), proxy, applicationInsightsClient)) {
-            return ProgressEvent.defaultSuccessHandler(null);
-        } else {
-            return ProgressEvent.defaultInProgressHandler(
-                    CallbackContext.builder()
-                            .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining() - 1)
-                            .build(),
-                    WAIT_CALLBACK_DELAY_SECONDS,
-                    model);
-        }
+        // applications which delete quickly are seen gone within the same invocation,
+        // otherwise the deletion is polled with backoff and jitter across callbacks
+        final ProgressEvent<ResourceModel, CallbackContext> progressEvent = new StepGraph(ItemUniverse.fromModels(model))
+                .step(Step.APP_DELETION,
+                        Collections.emptyList(),
+                        () -> new ArrayList<>(Arrays.asList(model.getResourceGroupName())),
+                        stepContext -> new AppDeletionStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .execute(model, newCallbackContext, executionBudget, logger);
+
+        return progressEvent.isSuccess() ? ProgressEvent.defaultSuccessHandler(null) : progressEvent;
     }
 }
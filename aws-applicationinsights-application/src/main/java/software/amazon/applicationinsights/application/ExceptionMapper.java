@@ -1,9 +1,20 @@
 package software.amazon.applicationinsights.application;
 
+import software.amazon.awssdk.core.exception.RetryableException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkServiceException;
 import software.amazon.awssdk.services.applicationinsights.model.ResourceInUseException;
 import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.applicationinsights.model.ValidationException;
 import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static software.amazon.applicationinsights.application.Constants.MAX_ITEM_RETRY_ATTEMPTS;
+import static software.amazon.applicationinsights.application.Constants.MAX_RETRY_CALLBACK_DELAY_SECONDS;
+import static software.amazon.applicationinsights.application.Constants.RETRY_CALLBACK_DELAY_SECONDS;
 
 public class ExceptionMapper {
 
@@ -18,8 +29,60 @@ public class ExceptionMapper {
             return HandlerErrorCode.NotFound;
         } else if (exception instanceof ValidationException) {
             return HandlerErrorCode.InvalidRequest;
+        } else if (isThrottling(exception)) {
+            return HandlerErrorCode.Throttling;
+        } else if (exception instanceof SdkServiceException && ((SdkServiceException) exception).statusCode() >= 500) {
+            return HandlerErrorCode.ServiceInternalError;
+        } else if (isNetworkFailure(exception)) {
+            return HandlerErrorCode.NetworkFailure;
         } else {
             return HandlerErrorCode.InternalFailure;
         }
     }
+
+    public static boolean isThrottling(final Exception exception) {
+        return exception instanceof SdkServiceException && ((SdkServiceException) exception).isThrottlingException();
+    }
+
+    /**
+     * Whether the exception is a transient failure which is expected to go away when the call is retried later:
+     * throttling, server side errors, network errors and calls left for a later invocation.
+     */
+    public static boolean isRetryable(final Exception exception) {
+        if (exception instanceof SdkServiceException) {
+            SdkServiceException serviceException = (SdkServiceException) exception;
+            return serviceException.isThrottlingException() || serviceException.statusCode() >= 500;
+        }
+
+        return exception instanceof RetryableException
+                || exception instanceof ExecutionBudgetExhaustedException
+                || isNetworkFailure(exception);
+    }
+
+    /**
+     * Fails the handler with the mapped error code, or asks to be called back after a jittered delay when the
+     * existence check failed transiently, so that stacks throttled together slow down and retry at different
+     * times instead of rolling back. The delay backs off with the consecutive failures recorded in the callback
+     * context, the handler fails once they exceed the max item retry attempts. The given callback context is
+     * left as it is, the attempts are recorded in a copy of it.
+     */
+    public static ProgressEvent<ResourceModel, CallbackContext> toProgressEvent(
+            final Exception exception,
+            final ResourceModel model,
+            final CallbackContext callbackContext) {
+        int attempts = Optional.ofNullable(callbackContext.getExistenceCheckAttempts()).orElse(0) + 1;
+        if (isRetryable(exception) && attempts <= MAX_ITEM_RETRY_ATTEMPTS) {
+            return ProgressEvent.defaultInProgressHandler(
+                    callbackContext.toBuilder().existenceCheckAttempts(attempts).build(),
+                    AdaptivePollingScheduler.nextCallbackDelaySeconds(
+                            RETRY_CALLBACK_DELAY_SECONDS, MAX_RETRY_CALLBACK_DELAY_SECONDS, attempts),
+                    model);
+        }
+
+        return ProgressEvent.defaultFailureHandler(exception, mapToHandlerErrorCode(exception));
+    }
+
+    private static boolean isNetworkFailure(final Exception exception) {
+        return exception instanceof SdkClientException && exception.getCause() instanceof IOException;
+    }
 }
@@ -0,0 +1,40 @@
+package software.amazon.applicationinsights.application;
+
+import static software.amazon.applicationinsights.application.Constants.DEFAULT_INVOCATION_TIMEOUT_SECONDS;
+import static software.amazon.applicationinsights.application.Constants.INVOCATION_SAFETY_MARGIN_MILLIS;
+import static software.amazon.applicationinsights.application.Constants.INVOCATION_TIMEOUT_SECONDS_VARIABLE;
+
+/**
+ * Time the current handler invocation can still spend on steps. The budget starts with the invocation and
+ * ends a safety margin before the invocation times out, which leaves room for the API call in flight and
+ * for checkpointing the state into CallbackContext. The invocation timeout is taken from the
+ * INVOCATION_TIMEOUT_SECONDS environment variable when it is set, so it can follow the timeout of the function.
+ */
+public class ExecutionBudget {
+
+    private final long deadlineMillis;
+
+    public ExecutionBudget(final long budgetMillis) {
+        this.deadlineMillis = System.currentTimeMillis() + budgetMillis;
+    }
+
+    public static ExecutionBudget forInvocation() {
+        long invocationTimeoutMillis = (long) (HandlerHelper.getNonNegativeVariable(
+                INVOCATION_TIMEOUT_SECONDS_VARIABLE, DEFAULT_INVOCATION_TIMEOUT_SECONDS) * 1000);
+        // the margin never takes more than a third of a short invocation
+        return new ExecutionBudget(
+                invocationTimeoutMillis - Math.min(INVOCATION_SAFETY_MARGIN_MILLIS, invocationTimeoutMillis / 3));
+    }
+
+    public long getRemainingMillis() {
+        return Math.max(0, deadlineMillis - System.currentTimeMillis());
+    }
+
+    public boolean hasHeadroom(final long millis) {
+        return getRemainingMillis() >= millis;
+    }
+
+    public boolean isExhausted() {
+        return getRemainingMillis() == 0;
+    }
+}
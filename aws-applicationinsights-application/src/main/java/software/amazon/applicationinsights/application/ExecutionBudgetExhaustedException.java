@@ -0,0 +1,14 @@
+package software.amazon.applicationinsights.application;
+
+/**
+ * Thrown instead of waiting for a rate limiting token or a pending read which would not be available before
+ * the execution budget of the invocation runs out. The work is left for a later round or callback.
+ */
+public class ExecutionBudgetExhaustedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExecutionBudgetExhaustedException(final String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,9 @@
 package software.amazon.applicationinsights.application;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import software.amazon.applicationinsights.application.InputConfiguration.InputComponentConfiguration;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsAsyncClient;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.awssdk.services.applicationinsights.model.ApplicationComponent;
 import software.amazon.awssdk.services.applicationinsights.model.CreateApplicationRequest;
@@ -19,8 +19,6 @@ import software.amazon.awssdk.services.applicationinsights.model.DescribeCompone
 import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentConfigurationRequest;
 import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentRequest;
 import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentResponse;
-import software.amazon.awssdk.services.applicationinsights.model.DescribeLogPatternRequest;
-import software.amazon.awssdk.services.applicationinsights.model.DescribeLogPatternResponse;
 import software.amazon.awssdk.services.applicationinsights.model.ListApplicationsRequest;
 import software.amazon.awssdk.services.applicationinsights.model.ListApplicationsResponse;
 import software.amazon.awssdk.services.applicationinsights.model.ListComponentsRequest;
@@ -47,20 +45,39 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class HandlerHelper {
     private static final String DEFAULT_COMPONENT_CONFIG_MODE = "DEFAULT";
     private static final String CUSTOM_COMPONENT_CONFIG_MODE = "CUSTOM";
     private static final String DEFAULT_WITH_OVERWRITE_COMPONENT_CONFIG_MODE = "DEFAULT_WITH_OVERWRITE";
     private static final int MAX_COMPONENTS_PER_LIST_REQUEST = 40;
+    // runs synchronous reads in parallel, the concurrency limiter of the reads bounds how many run at the same time
+    // and so how many threads are kept, the threads are daemons so they never keep the handler from returning
+    private static final ExecutorService PARALLEL_READ_EXECUTOR = Executors.newCachedThreadPool(
+            runnable -> {
+                Thread thread = new Thread(runnable, "parallel-read");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final RecommendationCache RECOMMENDATION_CACHE =
+            new RecommendationCache(Constants.RECOMMENDATION_CACHE_MAX_ENTRIES);
     private static final Pattern APPLICATION_INSIGHTS_APPLICATION_ARN_PATTERN = Pattern.compile("^arn:.*:applicationinsights:.*:[0-9]{12}:application/resource-group/(.*)");
 
     public static boolean doesApplicationExist(
@@ -79,7 +96,7 @@ public class HandlerHelper {
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        proxy.injectCredentialsAndInvokeV2(CreateApplicationRequest.builder()
+        InvocationScopedApi.write(CreateApplicationRequest.builder()
                         // required fields
                         .resourceGroupName(model.getResourceGroupName())
                         // optional fields
@@ -92,17 +109,17 @@ public class HandlerHelper {
                         .groupingType(model.getGroupingType())
                         .autoConfigEnabled(model.getAutoConfigurationEnabled())
                         .build(),
-                applicationInsightsClient::createApplication);
+                applicationInsightsClient::createApplication, proxy);
     }
 
     public static DescribeApplicationResponse describeApplicationInsightsApplication(
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        return proxy.injectCredentialsAndInvokeV2(DescribeApplicationRequest.builder()
+        return InvocationScopedApi.read(DescribeApplicationRequest.builder()
                         .resourceGroupName(resourceGroupName)
                         .build(),
-                applicationInsightsClient::describeApplication);
+                applicationInsightsClient::describeApplication, proxy);
     }
 
     private static Set<Tag> translateModelTagsToSdkTags(
@@ -125,10 +142,10 @@ public class HandlerHelper {
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        proxy.injectCredentialsAndInvokeV2(DeleteApplicationRequest.builder()
+        InvocationScopedApi.write(DeleteApplicationRequest.builder()
                         .resourceGroupName(model.getResourceGroupName())
                         .build(),
-                applicationInsightsClient::deleteApplication);
+                applicationInsightsClient::deleteApplication, proxy);
     }
 
     public static void createCustomComponent(
@@ -136,12 +153,12 @@ public class HandlerHelper {
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        proxy.injectCredentialsAndInvokeV2(CreateComponentRequest.builder()
+        InvocationScopedApi.write(CreateComponentRequest.builder()
                         .resourceGroupName(resourceGroupName)
                         .componentName(customComponent.getComponentName())
                         .resourceList(customComponent.getResourceList())
                         .build(),
-                applicationInsightsClient::createComponent);
+                applicationInsightsClient::createComponent, proxy);
     }
 
     public static boolean doesCustomComponentExist(
@@ -150,11 +167,11 @@ public class HandlerHelper {
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
         try {
-            proxy.injectCredentialsAndInvokeV2(DescribeComponentRequest.builder()
+            InvocationScopedApi.read(DescribeComponentRequest.builder()
                             .resourceGroupName(resourceGroupName)
                             .componentName(componentName)
                             .build(),
-                    applicationInsightsClient::describeComponent);
+                    applicationInsightsClient::describeComponent, proxy);
             return true;
         } catch (ResourceNotFoundException e) {
             return false;
@@ -167,33 +184,14 @@ public class HandlerHelper {
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        proxy.injectCredentialsAndInvokeV2(CreateLogPatternRequest.builder()
+        InvocationScopedApi.write(CreateLogPatternRequest.builder()
                         .resourceGroupName(resourceGroupName)
                         .patternSetName(patternSetName)
                         .patternName(logPattern.getPatternName())
                         .pattern(logPattern.getPattern())
                         .rank(logPattern.getRank())
                         .build(),
-                applicationInsightsClient::createLogPattern);
-    }
-
-    public static boolean doesLogPatternExist(
-            String resourceGroupName,
-            String patternSetName,
-            String patternName,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        try {
-            proxy.injectCredentialsAndInvokeV2(DescribeLogPatternRequest.builder()
-                            .resourceGroupName(resourceGroupName)
-                            .patternSetName(patternSetName)
-                            .patternName(patternName)
-                            .build(),
-                    applicationInsightsClient::describeLogPattern);
-            return true;
-        } catch (ResourceNotFoundException e) {
-            return false;
-        }
+                applicationInsightsClient::createLogPattern, proxy);
     }
 
     public static void createComponentConfiguration(
@@ -216,58 +214,46 @@ public class HandlerHelper {
             logger.log("Component name or ARN: " + componentNameOrArn);
             logger.log("Component Configuration String (CUSTOM mode): " + componentConfiguration);
 
-            proxy.injectCredentialsAndInvokeV2(UpdateComponentConfigurationRequest.builder()
+            InvocationScopedApi.write(UpdateComponentConfigurationRequest.builder()
                             .resourceGroupName(model.getResourceGroupName())
                             .componentName(componentNameOrArn)
                             .monitor(true)
                             .tier(componentMonitoringSetting.getTier())
                             .componentConfiguration(componentConfiguration)
                             .build(),
-                    applicationInsightsClient::updateComponentConfiguration);
+                    applicationInsightsClient::updateComponentConfiguration, proxy);
         } else if (mode.equals(DEFAULT_COMPONENT_CONFIG_MODE)) {
 
             createDefaultComponentConfiguration(
                     componentNameOrArn, componentMonitoringSetting.getTier(), model, proxy, applicationInsightsClient, logger);
 
         } else if (mode.equals(DEFAULT_WITH_OVERWRITE_COMPONENT_CONFIG_MODE)) {
-            DescribeComponentConfigurationRecommendationResponse describeComponentConfigurationRecommendationResponse =
-                    proxy.injectCredentialsAndInvokeV2(DescribeComponentConfigurationRecommendationRequest.builder()
-                                    .resourceGroupName(model.getResourceGroupName())
-                                    .componentName(componentNameOrArn)
-                                    .tier(componentMonitoringSetting.getTier())
-                                    .build(),
-                            applicationInsightsClient::describeComponentConfigurationRecommendation);
-
             logger.log("Component name or ARN: " + componentNameOrArn);
-            String recomendedComponentConfigurationString =
-                    describeComponentConfigurationRecommendationResponse.componentConfiguration();
-            logger.log("Recommended Component Configuration String (DEFAULT_WITH_OVERWRITE mode): " + recomendedComponentConfigurationString);
-
-            ObjectMapper mapper = new ObjectMapper()
-                    .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
-                    .setSerializationInclusion(JsonInclude.Include.NON_NULL);
-            InputComponentConfiguration recommendedInputConfig = mapper.readValue(
-                    recomendedComponentConfigurationString, InputComponentConfiguration.class);
+            RecommendationCache.ParsedRecommendation recommendation = getComponentConfigurationRecommendation(
+                    componentNameOrArn, componentMonitoringSetting.getTier(), model, proxy, applicationInsightsClient);
 
             logger.log("Recommended Component Configuration String transformed (DEFAULT_WITH_OVERWRITE mode): " +
-                    mapper.writerWithDefaultPrettyPrinter().writeValueAsString(recommendedInputConfig));
+                    recommendation.getComponentConfiguration());
 
             InputComponentConfiguration recommendedInputConfigWithOverwrite =
-                    new InputComponentConfiguration(recommendedInputConfig, componentMonitoringSetting.getDefaultOverwriteComponentConfiguration());
+                    new InputComponentConfiguration(recommendation.getInputComponentConfiguration(),
+                            componentMonitoringSetting.getDefaultOverwriteComponentConfiguration());
 
             // Same as CUSTOM flow
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
             String componentConfiguration = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(recommendedInputConfigWithOverwrite);
 
             logger.log("Component Configuration String (DEFAULT_WITH_OVERWRITE mode): " + componentConfiguration);
 
-            proxy.injectCredentialsAndInvokeV2(UpdateComponentConfigurationRequest.builder()
+            InvocationScopedApi.write(UpdateComponentConfigurationRequest.builder()
                             .resourceGroupName(model.getResourceGroupName())
                             .componentName(componentNameOrArn)
                             .monitor(true)
                             .tier(componentMonitoringSetting.getTier())
                             .componentConfiguration(componentConfiguration)
                             .build(),
-                    applicationInsightsClient::updateComponentConfiguration);
+                    applicationInsightsClient::updateComponentConfiguration, proxy);
         }
     }
 
@@ -278,38 +264,44 @@ public class HandlerHelper {
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) throws IOException {
-        DescribeComponentConfigurationRecommendationResponse describeComponentConfigurationRecommendationResponse =
-                proxy.injectCredentialsAndInvokeV2(DescribeComponentConfigurationRecommendationRequest.builder()
-                                .resourceGroupName(model.getResourceGroupName())
-                                .componentName(componentNameOrARN)
-                                .tier(tier)
-                                .build(),
-                        applicationInsightsClient::describeComponentConfigurationRecommendation);
-
-        String recomendedComponentConfigurationString =
-                describeComponentConfigurationRecommendationResponse.componentConfiguration();
         logger.log("Component name or ARN: " + componentNameOrARN);
-        logger.log("Recommended Component Configuration String (DEFAULT mode): " + recomendedComponentConfigurationString);
-
-        ObjectMapper mapper = new ObjectMapper()
-                .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
-                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        InputComponentConfiguration recommendedInputConfig = mapper.readValue(
-                recomendedComponentConfigurationString, InputComponentConfiguration.class);
+        RecommendationCache.ParsedRecommendation recommendation = getComponentConfigurationRecommendation(
+                componentNameOrARN, tier, model, proxy, applicationInsightsClient);
 
         // same as CUSTOM branch
-        String inputComponentConfigurationString = mapper.writerWithDefaultPrettyPrinter().writeValueAsString(recommendedInputConfig);
+        String inputComponentConfigurationString = recommendation.getComponentConfiguration();
 
         logger.log("Component Configuration String (DEFAULT mode): " + inputComponentConfigurationString);
 
-        proxy.injectCredentialsAndInvokeV2(UpdateComponentConfigurationRequest.builder()
+        InvocationScopedApi.write(UpdateComponentConfigurationRequest.builder()
                         .resourceGroupName(model.getResourceGroupName())
                         .componentName(componentNameOrARN)
                         .monitor(true)
                         .tier(tier)
                         .componentConfiguration(inputComponentConfigurationString)
                         .build(),
-                applicationInsightsClient::updateComponentConfiguration);
+                applicationInsightsClient::updateComponentConfiguration, proxy);
+    }
+
+    /**
+     * Recommendations are fetched once per (resource group, component, tier) until the resources of the component
+     * change, and parsed once per distinct content.
+     */
+    private static RecommendationCache.ParsedRecommendation getComponentConfigurationRecommendation(
+            String componentNameOrARN,
+            String tier,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient) throws IOException {
+        DescribeComponentConfigurationRecommendationResponse describeComponentConfigurationRecommendationResponse =
+                InvocationScopedApi.readAcrossInvocations(DescribeComponentConfigurationRecommendationRequest.builder()
+                                .resourceGroupName(model.getResourceGroupName())
+                                .componentName(componentNameOrARN)
+                                .tier(tier)
+                                .build(),
+                        applicationInsightsClient::describeComponentConfigurationRecommendation, proxy);
+
+        return RECOMMENDATION_CACHE.get(describeComponentConfigurationRecommendationResponse.componentConfiguration());
     }
 
     public static String getComponentNameOrARNFromComponentMonitoringSetting(
@@ -322,9 +314,7 @@ public class HandlerHelper {
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        List<ApplicationComponent> appComponents = listApplicationComponents(model.getResourceGroupName(), proxy, applicationInsightsClient);
-
-        return appComponents.stream()
+        return streamApplicationComponents(model.getResourceGroupName(), proxy, applicationInsightsClient)
             .map(applicationComponent -> applicationComponent.componentName())
             .collect(Collectors.toList());
     }
@@ -333,7 +323,7 @@ public class HandlerHelper {
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        proxy.injectCredentialsAndInvokeV2(UpdateApplicationRequest.builder()
+        InvocationScopedApi.write(UpdateApplicationRequest.builder()
                         // required fields
                         .resourceGroupName(model.getResourceGroupName())
                         // optional fields
@@ -344,14 +334,13 @@ public class HandlerHelper {
                         .removeSNSTopic(model.getOpsItemSNSTopicArn() == null ? true : false)
                         .autoConfigEnabled(model.getAutoConfigurationEnabled() == null ? false : model.getAutoConfigurationEnabled())
                         .build(),
-                applicationInsightsClient::updateApplication);
+                applicationInsightsClient::updateApplication, proxy);
     }
 
     public static List<String> getTagKeysToDelete(
             ResourceModel model,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        Set<Tag> appTags = new HashSet<>(getApplicationTags(model.getApplicationARN(), proxy, applicationInsightsClient));
+            List<Tag> applicationTags) {
+        Set<Tag> appTags = new HashSet<>(applicationTags);
         Set<Tag> modelTags = translateModelTagsToSdkTags(model.getTags());
 
         List<String> tagKeysToDelete = new ArrayList<>();
@@ -367,9 +356,8 @@ public class HandlerHelper {
 
     public static List<String> getTagKeysToCreate(
             ResourceModel model,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        Set<Tag> appTags = new HashSet<>(getApplicationTags(model.getApplicationARN(), proxy, applicationInsightsClient));
+            List<Tag> applicationTags) {
+        Set<Tag> appTags = new HashSet<>(applicationTags);
         Set<Tag> modelTags = translateModelTagsToSdkTags(model.getTags());
 
         List<String> tagKeysToCreate = new ArrayList<>();
@@ -383,52 +371,54 @@ public class HandlerHelper {
         return tagKeysToCreate;
     }
 
-    private static List<Tag> getApplicationTags(
+    public static List<Tag> getApplicationTags(
             String applicationARN,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        ListTagsForResourceResponse response = proxy.injectCredentialsAndInvokeV2(ListTagsForResourceRequest.builder()
+        ListTagsForResourceResponse response = InvocationScopedApi.readAcrossInvocations(ListTagsForResourceRequest.builder()
                         .resourceARN(applicationARN)
                         .build(),
-                applicationInsightsClient::listTagsForResource);
+                applicationInsightsClient::listTagsForResource, proxy);
         return response.tags();
     }
 
     public static void unTagApplication(
-            String tagKeyToDelete,
+            List<String> tagKeysToDelete,
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) {
-        logger.log(String.format("Calling UntagResource API: %s %s", model.getApplicationARN(), tagKeyToDelete));
-        proxy.injectCredentialsAndInvokeV2(UntagResourceRequest.builder()
+        logger.log(String.format("Calling UntagResource API: %s %s", model.getApplicationARN(), tagKeysToDelete));
+        InvocationScopedApi.write(UntagResourceRequest.builder()
                         .resourceARN(model.getApplicationARN())
-                        .tagKeys(tagKeyToDelete)
+                        .tagKeys(tagKeysToDelete)
                         .build(),
-                applicationInsightsClient::untagResource);
+                applicationInsightsClient::untagResource, proxy);
         logger.log("Finish calling UntagResource API.");
     }
 
-    public static boolean tagDeletedForApplicaiton(
-            String tagKey,
+    /**
+     * Returns the tag keys in tagKeys which are no longer on the application, with one ListTagsForResource call.
+     */
+    public static List<String> getDeletedTagKeys(
+            List<String> tagKeys,
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) {
-        logger.log(String.format("Inside tagsDeletedForApplicaiton function for tagKey %s", tagKey));
-        List<Tag> appTags = getApplicationTags(model.getApplicationARN(), proxy, applicationInsightsClient);
-
-        for (Tag appTag : appTags) {
-            if (tagKey.equals(appTag.key())) {
-                return false;
-            }
-        }
+        logger.log(String.format("Inside getDeletedTagKeys function for tagKeys %s", tagKeys));
+        Set<String> appTagKeys = getApplicationTags(model.getApplicationARN(), proxy, applicationInsightsClient)
+                .stream()
+                .map(Tag::key)
+                .collect(Collectors.toSet());
 
-        return true;
+        return tagKeys.stream()
+                .filter(tagKey -> !appTagKeys.contains(tagKey))
+                .collect(Collectors.toList());
     }
 
     public static void tagApplication(
-            String tagKeyToCreate,
+            List<String> tagKeysToCreate,
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
@@ -436,40 +426,50 @@ public class HandlerHelper {
         List<software.amazon.applicationinsights.application.Tag> tagsToCreate =
                 Optional.ofNullable(model.getTags()).orElse(Collections.emptyList())
                         .stream()
-                        .filter(tag -> tagKeyToCreate.equals(tag.getKey()))
+                        .filter(tag -> tagKeysToCreate.contains(tag.getKey()))
                         .collect(Collectors.toList());
 
         logger.log(String.format("Calling TagResoruce API: %s %s", model.getApplicationARN(), translateModelTagsToSdkTags(tagsToCreate).toString()));
-        proxy.injectCredentialsAndInvokeV2(TagResourceRequest.builder()
+        InvocationScopedApi.write(TagResourceRequest.builder()
                         .resourceARN(model.getApplicationARN())
                         .tags(translateModelTagsToSdkTags(tagsToCreate))
                         .build(),
-                applicationInsightsClient::tagResource);
+                applicationInsightsClient::tagResource, proxy);
         logger.log("Finish calling TagResoruce API.");
     }
 
-    public static boolean tagCreatedForApplicaiton(
-            String tagKey,
+    /**
+     * Returns the tag keys in tagKeys whose model tag is on the application, with one ListTagsForResource call.
+     */
+    public static List<String> getCreatedTagKeys(
+            List<String> tagKeys,
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
         List<Tag> appTags = getApplicationTags(model.getApplicationARN(), proxy, applicationInsightsClient);
 
-        List<software.amazon.applicationinsights.application.Tag> tagsToCheck =
-                Optional.ofNullable(model.getTags()).orElse(Collections.emptyList())
-                        .stream()
-                        .filter(tag -> tagKey.equals(tag.getKey()))
-                        .collect(Collectors.toList());
+        return Optional.ofNullable(model.getTags()).orElse(Collections.emptyList())
+                .stream()
+                .filter(tag -> tagKeys.contains(tag.getKey()))
+                .filter(tag -> appTags.containsAll(translateModelTagsToSdkTags(Collections.singletonList(tag))))
+                .map(tag -> tag.getKey())
+                .collect(Collectors.toList());
+    }
 
-        return appTags.containsAll(translateModelTagsToSdkTags(tagsToCheck));
+    // number of resources the component is expected to have, custom components list their resources in the model
+    public static int getModelComponentResourceCount(String componentNameOrARN, ResourceModel model) {
+        return Optional.ofNullable(model.getCustomComponents()).orElse(Collections.emptyList())
+                .stream()
+                .filter(customComponent -> componentNameOrARN.equals(customComponent.getComponentName()))
+                .findFirst()
+                .map(customComponent -> Optional.ofNullable(customComponent.getResourceList()).orElse(Collections.emptyList()).size())
+                .orElse(1);
     }
 
     public static List<String> getCustomComponentNamesToCreate(
             ResourceModel model,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient,
+            List<String> appComponentNames,
             Logger logger) {
-        List<String> appComponentNames = getAppCustomComponentNames(model.getResourceGroupName(), proxy, applicationInsightsClient);
         logger.log("app component names: " + appComponentNames.toString());
 
         List<String> modelComponentNames =
@@ -487,10 +487,10 @@ public class HandlerHelper {
 
     public static List<String> getCustomComponentNamesToDelete(
             ResourceModel model,
+            List<String> appComponentNames,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) {
-        List<String> appComponentNames = getAppCustomComponentNames(model.getResourceGroupName(), proxy, applicationInsightsClient);
         logger.log("app component names: " + appComponentNames.toString());
 
         Map<String, CustomComponent> modelComponentMap =
@@ -507,10 +507,18 @@ public class HandlerHelper {
         commonComponentNames.retainAll(modelComponentNames);
         logger.log("common component names: " + commonComponentNames.toString());
 
-        for (String commonComponentName : commonComponentNames) {
-            DescribeComponentResponse describeComponentResponse =
-                    describeAppicationComponent(commonComponentName, model.getResourceGroupName(), proxy, applicationInsightsClient);
-            List<String> resourceList = describeComponentResponse.resourceList();
+        // the common components are described in parallel, their resource lists are compared in the order listed
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(Constants.PARALLEL_MAX_CONCURRENT_READS);
+        List<CompletableFuture<DescribeComponentResponse>> describeComponentFutures = commonComponentNames.stream()
+                .map(commonComponentName -> concurrencyLimiter.submit(() -> CompletableFuture.supplyAsync(() ->
+                                describeAppicationComponent(commonComponentName, model.getResourceGroupName(), proxy, applicationInsightsClient),
+                        PARALLEL_READ_EXECUTOR)))
+                .collect(Collectors.toList());
+        joinAll(proxy, describeComponentFutures.toArray(new CompletableFuture<?>[0]));
+
+        for (int i = 0; i < commonComponentNames.size(); i++) {
+            String commonComponentName = commonComponentNames.get(i);
+            List<String> resourceList = describeComponentFutures.get(i).join().resourceList();
             List<String> modelResourceList = modelComponentMap.get(commonComponentName).getResourceList();
             logger.log("common component name: " + commonComponentName);
             logger.log("app resource list: " + resourceList.toString());
@@ -527,12 +535,11 @@ public class HandlerHelper {
         return componentNamesToDelete;
     }
 
-    private static List<String> getAppCustomComponentNames(
+    public static List<String> getAppCustomComponentNames(
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        List<ApplicationComponent> appComponents = listApplicationComponents(resourceGroupName, proxy, applicationInsightsClient);
-        return appComponents.stream()
+        return streamApplicationComponents(resourceGroupName, proxy, applicationInsightsClient)
                 .filter(component -> component.resourceType().equals("CustomComponent"))
                 .map(component -> component.componentName())
                 .collect(Collectors.toList());
@@ -543,35 +550,27 @@ public class HandlerHelper {
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        return proxy.injectCredentialsAndInvokeV2(DescribeComponentRequest.builder()
+        return InvocationScopedApi.read(DescribeComponentRequest.builder()
                         .resourceGroupName(resourceGroupName)
                         .componentName(componentName)
                         .build(),
-                applicationInsightsClient::describeComponent);
+                applicationInsightsClient::describeComponent, proxy);
     }
 
-    private static List<ApplicationComponent> listApplicationComponents(
+    public static Stream<ApplicationComponent> streamApplicationComponents(
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        List<ApplicationComponent> appComponents = new ArrayList<>();
-        String nextToken = null;
-
-        do {
-            ListComponentsResponse response = proxy.injectCredentialsAndInvokeV2(ListComponentsRequest.builder()
-                    .resourceGroupName(resourceGroupName)
-                    .maxResults(MAX_COMPONENTS_PER_LIST_REQUEST)
-                    .nextToken(nextToken)
-                    .build(),
-                applicationInsightsClient::listComponents);
-
-            if (response.applicationComponentList() != null) {
-                appComponents.addAll(response.applicationComponentList());
-            }
-            nextToken = response.nextToken();
-        } while (nextToken != null);
-
-        return appComponents;
+        return new Paginator<>(
+                nextToken -> InvocationScopedApi.readAcrossInvocations(ListComponentsRequest.builder()
+                                .resourceGroupName(resourceGroupName)
+                                .maxResults(MAX_COMPONENTS_PER_LIST_REQUEST)
+                                .nextToken(nextToken)
+                                .build(),
+                        applicationInsightsClient::listComponents, proxy),
+                ListComponentsResponse::applicationComponentList,
+                ListComponentsResponse::nextToken)
+                .stream();
     }
 
     public static void deleteCustomComponent(
@@ -579,84 +578,67 @@ public class HandlerHelper {
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        proxy.injectCredentialsAndInvokeV2(DeleteComponentRequest.builder()
+        InvocationScopedApi.write(DeleteComponentRequest.builder()
                         .resourceGroupName(resourceGroupName)
                         .componentName(componentNameToDelete)
                         .build(),
-                applicationInsightsClient::deleteComponent);
+                applicationInsightsClient::deleteComponent, proxy);
     }
 
     public static List<String> getLogPatternIdentifiersToDelete(
             ResourceModel model,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        List<String> appLogPatternIdentifiers = getAppLogPatternIdentifiers(model.getResourceGroupName(), proxy, applicationInsightsClient);
-
-        List<String> modelLogPatternIdentifiers = getModelLogPatternIdentifiers(model);
-
-        List<String> logPatternIdentifiersToDelete = new ArrayList<>(appLogPatternIdentifiers);
-        logPatternIdentifiersToDelete.removeAll(modelLogPatternIdentifiers);
+            Set<String> appLogPatternIdentifiers) {
+        Set<String> modelLogPatternIdentifiers = new HashSet<>(getModelLogPatternIdentifiers(model));
 
-        return logPatternIdentifiersToDelete;
+        return appLogPatternIdentifiers.stream()
+                .filter(appLogPatternIdentifier -> !modelLogPatternIdentifiers.contains(appLogPatternIdentifier))
+                .collect(Collectors.toList());
     }
 
     public static List<String> getLogPatternIdentifiersToCreate(
             ResourceModel model,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        List<String> appLogPatternIdentifiers = getAppLogPatternIdentifiers(model.getResourceGroupName(), proxy, applicationInsightsClient);
-
-        List<String> modelLogPatternIdentifiers = getModelLogPatternIdentifiers(model);
-
-        List<String> logPatternIdentifiersToCreate = new ArrayList<>(modelLogPatternIdentifiers);
-        logPatternIdentifiersToCreate.removeAll(appLogPatternIdentifiers);
-
-        return logPatternIdentifiersToCreate;
+            Set<String> appLogPatternIdentifiers) {
+        return getModelLogPatternIdentifiers(model).stream()
+                .filter(modelLogPatternIdentifier -> !appLogPatternIdentifiers.contains(modelLogPatternIdentifier))
+                .collect(Collectors.toList());
     }
 
+    // pattern and rank are compared against the listing, so no log pattern needs to be described
     public static List<String> getLogPatternIdentifiersToUpdate(
             ResourceModel model,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        List<String> appLogPatternIdentifiers = getAppLogPatternIdentifiers(model.getResourceGroupName(), proxy, applicationInsightsClient);
-
-        List<String> modelLogPatternIdentifiers = getModelLogPatternIdentifiers(model);
-
-        List<String> commonLogPatternIdentifiers = new ArrayList<>(appLogPatternIdentifiers);
-        commonLogPatternIdentifiers.retainAll(modelLogPatternIdentifiers);
-
-        List<String> logPatternIdentifiersToUpdate = new ArrayList<>();
-        for (String commonLogPatternIdentifier : commonLogPatternIdentifiers) {
-            if (!isLogPatternSyncedWithModel(
-                    commonLogPatternIdentifier.split(":")[0],
-                    commonLogPatternIdentifier.split(":")[1],
-                    model,
-                    proxy,
-                    applicationInsightsClient)) {
-                logPatternIdentifiersToUpdate.add(commonLogPatternIdentifier);
-            }
-        }
-
-        return logPatternIdentifiersToUpdate;
+            Stream<software.amazon.awssdk.services.applicationinsights.model.LogPattern> appLogPatterns) {
+        return appLogPatterns
+                .filter(appLogPattern -> {
+                    LogPattern modelLogPattern = pickLogPatternFromModel(
+                            appLogPattern.patternSetName(), appLogPattern.patternName(), model);
+                    return modelLogPattern != null && !isLogPatternSyncedWithModel(modelLogPattern, appLogPattern);
+                })
+                .map(appLogPattern -> generateLogPatternIdentifier(appLogPattern.patternSetName(), appLogPattern.patternName()))
+                .collect(Collectors.toList());
     }
 
-    private static List<String> getAppLogPatternIdentifiers(
+    public static Set<String> getAppLogPatternIdentifiers(
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        return listLogPatterns(resourceGroupName, proxy, applicationInsightsClient).logPatterns().stream()
+        return streamAppLogPatterns(resourceGroupName, proxy, applicationInsightsClient)
                 .map(logPattern -> generateLogPatternIdentifier(logPattern.patternSetName(), logPattern.patternName()))
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
-    private static ListLogPatternsResponse listLogPatterns(
+    public static Stream<software.amazon.awssdk.services.applicationinsights.model.LogPattern> streamAppLogPatterns(
             String resourceGroupName,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        return proxy.injectCredentialsAndInvokeV2(ListLogPatternsRequest.builder()
-                        .resourceGroupName(resourceGroupName)
-                        .build(),
-                applicationInsightsClient::listLogPatterns);
+        return new Paginator<>(
+                nextToken -> InvocationScopedApi.readAcrossInvocations(ListLogPatternsRequest.builder()
+                                .resourceGroupName(resourceGroupName)
+                                .nextToken(nextToken)
+                                .build(),
+                        applicationInsightsClient::listLogPatterns, proxy),
+                ListLogPatternsResponse::logPatterns,
+                ListLogPatternsResponse::nextToken)
+                .stream();
     }
 
     public static void deleteLogPattern(
@@ -665,12 +647,12 @@ public class HandlerHelper {
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        proxy.injectCredentialsAndInvokeV2(DeleteLogPatternRequest.builder()
+        InvocationScopedApi.write(DeleteLogPatternRequest.builder()
                         .resourceGroupName(model.getResourceGroupName())
                         .patternSetName(patternSetName)
                         .patternName(patternName)
                         .build(),
-                applicationInsightsClient::deleteLogPattern);
+                applicationInsightsClient::deleteLogPattern, proxy);
     }
 
     public static void updateLogPattern(
@@ -679,41 +661,21 @@ public class HandlerHelper {
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        proxy.injectCredentialsAndInvokeV2(UpdateLogPatternRequest.builder()
+        InvocationScopedApi.write(UpdateLogPatternRequest.builder()
                         .resourceGroupName(model.getResourceGroupName())
                         .patternSetName(patternSetName)
                         .patternName(logPattern.getPatternName())
                         .pattern(logPattern.getPattern())
                         .rank(logPattern.getRank())
                         .build(),
-                applicationInsightsClient::updateLogPattern);
+                applicationInsightsClient::updateLogPattern, proxy);
     }
 
     public static boolean isLogPatternSyncedWithModel(
-            String patternSetName,
-            String patternName,
-            ResourceModel model,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        DescribeLogPatternResponse describeLogPatternResponse =
-                proxy.injectCredentialsAndInvokeV2(DescribeLogPatternRequest.builder()
-                        .resourceGroupName(model.getResourceGroupName())
-                        .patternSetName(patternSetName)
-                        .patternName(patternName)
-                        .build(),
-                applicationInsightsClient::describeLogPattern);
-
-        LogPattern logPattern = pickLogPatternFromModel(patternSetName, patternName, model);
-
-        if (!logPattern.getPattern().equals(describeLogPatternResponse.logPattern().pattern())) {
-            return false;
-        }
-
-        if (!logPattern.getRank().equals(describeLogPatternResponse.logPattern().rank())) {
-            return false;
-        }
-
-        return true;
+            LogPattern modelLogPattern,
+            software.amazon.awssdk.services.applicationinsights.model.LogPattern appLogPattern) {
+        return modelLogPattern.getPattern().equals(appLogPattern.pattern())
+                && modelLogPattern.getRank().equals(appLogPattern.rank());
     }
 
     public static LogPattern pickLogPatternFromModel(String patternSetName, String patternName, ResourceModel model) {
@@ -745,11 +707,11 @@ public class HandlerHelper {
             ResourceModel model,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        return proxy.injectCredentialsAndInvokeV2(DescribeComponentConfigurationRequest.builder()
+        return InvocationScopedApi.read(DescribeComponentConfigurationRequest.builder()
                         .resourceGroupName(model.getResourceGroupName())
                         .componentName(componentNameOrARN)
                         .build(),
-                applicationInsightsClient::describeComponentConfiguration)
+                applicationInsightsClient::describeComponentConfiguration, proxy)
                 .monitor();
     }
 
@@ -759,61 +721,207 @@ public class HandlerHelper {
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) {
-        proxy.injectCredentialsAndInvokeV2(UpdateComponentConfigurationRequest.builder()
+        InvocationScopedApi.write(UpdateComponentConfigurationRequest.builder()
                         .resourceGroupName(model.getResourceGroupName())
                         .componentName(componentNameOrARN)
                         .monitor(false)
                         .build(),
-                applicationInsightsClient::updateComponentConfiguration);
+                applicationInsightsClient::updateComponentConfiguration, proxy);
     }
 
+    /**
+     * Reads the application with its tags, components and log patterns. The independent reads, their pages and
+     * the describes of the custom components run concurrently, bounded by READ_MODEL_MAX_CONCURRENT_READS,
+     * so reading the application takes about as long as its slowest chain of calls.
+     */
     public static ResourceModel generateReadModel(
             String resourceGroupName,
             ResourceModel model,
             ResourceHandlerRequest<ResourceModel> request,
             AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        ResourceModel readModel = ResourceModel.builder().build();
+            ApplicationInsightsAsyncClient applicationInsightsAsyncClient) {
+        return join(generateReadModelAsync(resourceGroupName, model, request, proxy, applicationInsightsAsyncClient,
+                new ConcurrencyLimiter(Constants.READ_MODEL_MAX_CONCURRENT_READS)), proxy);
+    }
 
-        readModel.setResourceGroupName(resourceGroupName);
+    /**
+     * Reads the model of the application without blocking. The reads of several models can share one
+     * concurrency limiter, which then bounds the calls in flight across all of them.
+     */
+    public static CompletableFuture<ResourceModel> generateReadModelAsync(
+            String resourceGroupName,
+            ResourceModel model,
+            ResourceHandlerRequest<ResourceModel> request,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsAsyncClient applicationInsightsAsyncClient,
+            ConcurrencyLimiter concurrencyLimiter) {
+        ResourceModel readModel = generateIdentifierModel(resourceGroupName, request);
 
-        readModel.setApplicationARN(String.format("arn:%s:applicationinsights:%s:%s:application/resource-group/%s",
+        CompletableFuture<DescribeApplicationResponse> describeApplicationFuture = concurrencyLimiter.submit(() ->
+                InvocationScopedApi.readAsync(DescribeApplicationRequest.builder()
+                                .resourceGroupName(resourceGroupName)
+                                .build(),
+                        applicationInsightsAsyncClient::describeApplication, proxy));
+        CompletableFuture<ListTagsForResourceResponse> listTagsFuture = concurrencyLimiter.submit(() ->
+                InvocationScopedApi.readAsync(ListTagsForResourceRequest.builder()
+                                .resourceARN(readModel.getApplicationARN())
+                                .build(),
+                        applicationInsightsAsyncClient::listTagsForResource, proxy));
+        CompletableFuture<List<CustomComponent>> customComponentsFuture = listApplicationComponentsAsync(
+                resourceGroupName, null, new ArrayList<>(), proxy, applicationInsightsAsyncClient, concurrencyLimiter)
+                .thenCompose(appComponents -> describeCustomComponentsAsync(
+                        appComponents, resourceGroupName, proxy, applicationInsightsAsyncClient, concurrencyLimiter));
+        CompletableFuture<List<software.amazon.awssdk.services.applicationinsights.model.LogPattern>> logPatternsFuture =
+                listAppLogPatternsAsync(resourceGroupName, null, new ArrayList<>(), proxy, applicationInsightsAsyncClient, concurrencyLimiter);
+
+        return CompletableFuture.allOf(describeApplicationFuture, listTagsFuture, customComponentsFuture, logPatternsFuture)
+                .thenApply(allDone -> {
+                    // set readModel application level attributes
+                    DescribeApplicationResponse describeApplicationResponse = describeApplicationFuture.join();
+                    readModel.setCWEMonitorEnabled(model == null ? describeApplicationResponse.applicationInfo().cweMonitorEnabled() :
+                            getReadModelBooleanFromModel(model.getCWEMonitorEnabled(), describeApplicationResponse.applicationInfo().cweMonitorEnabled()));
+                    readModel.setOpsCenterEnabled(model == null ? describeApplicationResponse.applicationInfo().opsCenterEnabled() :
+                            getReadModelBooleanFromModel(model.getOpsCenterEnabled(), describeApplicationResponse.applicationInfo().opsCenterEnabled()));
+                    readModel.setOpsItemSNSTopicArn(describeApplicationResponse.applicationInfo().opsItemSNSTopicArn());
+
+                    // set readModel tags attribute
+                    List<Tag> appTags = listTagsFuture.join().tags();
+                    if (appTags != null && !appTags.isEmpty()) {
+                        readModel.setTags(new ArrayList<>(translateSdkTagsToModelTags(appTags)));
+                    }
+
+                    // set readModel customComponents attribute
+                    List<CustomComponent> customComponents = customComponentsFuture.join();
+                    if (!customComponents.isEmpty()) {
+                        readModel.setCustomComponents(customComponents);
+                    }
+
+                    // set readModel logPatternSets attribute
+                    List<LogPatternSet> appLogPatternSets = translateSdkLogPatternsToModelLogPatternSets(logPatternsFuture.join());
+                    if (appLogPatternSets != null && !appLogPatternSets.isEmpty()) {
+                        readModel.setLogPatternSets(appLogPatternSets);
+                    }
+
+                    return readModel;
+                });
+    }
+
+    /**
+     * Returns the model of the application holding only its primary identifier and resource group name,
+     * which are known without reading the application.
+     */
+    public static ResourceModel generateIdentifierModel(
+            String resourceGroupName,
+            ResourceHandlerRequest<ResourceModel> request) {
+        ResourceModel identifierModel = ResourceModel.builder().build();
+
+        identifierModel.setResourceGroupName(resourceGroupName);
+
+        identifierModel.setApplicationARN(String.format("arn:%s:applicationinsights:%s:%s:application/resource-group/%s",
                 request.getAwsPartition(),
                 request.getRegion(),
                 request.getAwsAccountId(),
                 resourceGroupName));
 
-        // set readModel application level attributes
-        DescribeApplicationResponse describeApplicationResponse = describeApplicationInsightsApplication(resourceGroupName, proxy, applicationInsightsClient);
-        readModel.setCWEMonitorEnabled(model == null ? describeApplicationResponse.applicationInfo().cweMonitorEnabled() :
-                getReadModelBooleanFromModel(model.getCWEMonitorEnabled(), describeApplicationResponse.applicationInfo().cweMonitorEnabled()));
-        readModel.setOpsCenterEnabled(model == null ? describeApplicationResponse.applicationInfo().opsCenterEnabled() :
-                getReadModelBooleanFromModel(model.getOpsCenterEnabled(), describeApplicationResponse.applicationInfo().opsCenterEnabled()));
-        readModel.setOpsItemSNSTopicArn(describeApplicationResponse.applicationInfo().opsItemSNSTopicArn());
-
-        // set readModel tags attribute
-        List<Tag> appTags = getApplicationTags(readModel.getApplicationARN(), proxy, applicationInsightsClient);
-        if (appTags != null && !appTags.isEmpty()) {
-            readModel.setTags(new ArrayList<>(translateSdkTagsToModelTags(appTags)));
-        }
+        return identifierModel;
+    }
 
-        // set readModel customComponents attribute
-        List<ApplicationComponent> appComponents = listApplicationComponents(resourceGroupName, proxy, applicationInsightsClient);
-        List<ApplicationComponent> appCustomComponents = appComponents.stream()
+    private static CompletableFuture<List<ApplicationComponent>> listApplicationComponentsAsync(
+            String resourceGroupName,
+            String nextToken,
+            List<ApplicationComponent> appComponents,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsAsyncClient applicationInsightsAsyncClient,
+            ConcurrencyLimiter concurrencyLimiter) {
+        return concurrencyLimiter.submit(() -> InvocationScopedApi.readAsync(ListComponentsRequest.builder()
+                                .resourceGroupName(resourceGroupName)
+                                .maxResults(MAX_COMPONENTS_PER_LIST_REQUEST)
+                                .nextToken(nextToken)
+                                .build(),
+                        applicationInsightsAsyncClient::listComponents, proxy))
+                .thenCompose(response -> {
+                    if (response.applicationComponentList() != null) {
+                        appComponents.addAll(response.applicationComponentList());
+                    }
+                    return response.nextToken() == null ?
+                            CompletableFuture.completedFuture(appComponents) :
+                            listApplicationComponentsAsync(resourceGroupName, response.nextToken(), appComponents,
+                                    proxy, applicationInsightsAsyncClient, concurrencyLimiter);
+                });
+    }
+
+    private static CompletableFuture<List<software.amazon.awssdk.services.applicationinsights.model.LogPattern>> listAppLogPatternsAsync(
+            String resourceGroupName,
+            String nextToken,
+            List<software.amazon.awssdk.services.applicationinsights.model.LogPattern> appLogPatterns,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsAsyncClient applicationInsightsAsyncClient,
+            ConcurrencyLimiter concurrencyLimiter) {
+        return concurrencyLimiter.submit(() -> InvocationScopedApi.readAsync(ListLogPatternsRequest.builder()
+                                .resourceGroupName(resourceGroupName)
+                                .nextToken(nextToken)
+                                .build(),
+                        applicationInsightsAsyncClient::listLogPatterns, proxy))
+                .thenCompose(response -> {
+                    if (response.logPatterns() != null) {
+                        appLogPatterns.addAll(response.logPatterns());
+                    }
+                    return response.nextToken() == null ?
+                            CompletableFuture.completedFuture(appLogPatterns) :
+                            listAppLogPatternsAsync(resourceGroupName, response.nextToken(), appLogPatterns,
+                                    proxy, applicationInsightsAsyncClient, concurrencyLimiter);
+                });
+    }
+
+    // custom components keep the order in which they are listed
+    private static CompletableFuture<List<CustomComponent>> describeCustomComponentsAsync(
+            List<ApplicationComponent> appComponents,
+            String resourceGroupName,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsAsyncClient applicationInsightsAsyncClient,
+            ConcurrencyLimiter concurrencyLimiter) {
+        List<CompletableFuture<CustomComponent>> customComponentFutures = appComponents.stream()
                 .filter(component -> component.resourceType().equals("CustomComponent"))
+                .map(appCustomComponent -> concurrencyLimiter.submit(() -> InvocationScopedApi.readAsync(DescribeComponentRequest.builder()
+                                        .resourceGroupName(resourceGroupName)
+                                        .componentName(appCustomComponent.componentName())
+                                        .build(),
+                                applicationInsightsAsyncClient::describeComponent, proxy))
+                        .thenApply(describeComponentResponse -> CustomComponent.builder()
+                                .componentName(appCustomComponent.componentName())
+                                .resourceList(describeComponentResponse.resourceList())
+                                .build()))
                 .collect(Collectors.toList());
-        if (appCustomComponents != null && !appCustomComponents.isEmpty()) {
-            readModel.setCustomComponents(tanslateSdkCustomComponentsToModelCustomComponents(appCustomComponents, resourceGroupName, proxy, applicationInsightsClient));
-        }
 
-        // set readModel logPatternSets attribute
-        ListLogPatternsResponse listLogPatternsResponse = listLogPatterns(resourceGroupName, proxy, applicationInsightsClient);
-        List<LogPatternSet> appLogPatternSets = translateSdkLogPatternsToModelLogPatternSets(listLogPatternsResponse.logPatterns());
-        if (appLogPatternSets != null && !appLogPatternSets.isEmpty()) {
-            readModel.setLogPatternSets(appLogPatternSets);
-        }
+        return CompletableFuture.allOf(customComponentFutures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(allDone -> customComponentFutures.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+    }
 
-        return readModel;
+    // waits for all the reads and fails with the exception of the service call which failed
+    public static void joinAll(AmazonWebServicesClientProxy proxy, CompletableFuture<?>... futures) {
+        join(CompletableFuture.allOf(futures), proxy);
+    }
+
+    /**
+     * Waits for the reads no longer than the execution budget of the invocation allows,
+     * and fails with the exception of the service call which failed.
+     */
+    public static <T> T join(CompletableFuture<T> future, AmazonWebServicesClientProxy proxy) {
+        try {
+            return future.get(InvocationScopedApi.getRemainingMillis(proxy), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ExecutionBudgetExhaustedException("Reads did not complete within the execution budget");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
     }
 
     private static List<LogPatternSet> translateSdkLogPatternsToModelLogPatternSets(
@@ -847,21 +955,6 @@ public class HandlerHelper {
         return modelLogPatternSets;
     }
 
-    private static List<CustomComponent> tanslateSdkCustomComponentsToModelCustomComponents(
-            List<ApplicationComponent> appCustomComponents,
-            String resourceGroupName,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient) {
-        return Optional.ofNullable(appCustomComponents).orElse(Collections.emptyList())
-                .stream()
-                .map(appCustomComponent -> CustomComponent.builder()
-                        .componentName(appCustomComponent.componentName())
-                        .resourceList(describeAppicationComponent(appCustomComponent.componentName(), resourceGroupName, proxy, applicationInsightsClient)
-                                .resourceList())
-                        .build())
-                .collect(Collectors.toList());
-    }
-
     private static Boolean getReadModelBooleanFromModel(Boolean modelBoolean, Boolean describeResponseBoolean) {
         return (!describeResponseBoolean && modelBoolean == null) ? null : describeResponseBoolean;
     }
@@ -870,10 +963,22 @@ public class HandlerHelper {
             String nextToken,
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient) {
-        return proxy.injectCredentialsAndInvokeV2(ListApplicationsRequest.builder()
+        return InvocationScopedApi.read(ListApplicationsRequest.builder()
                         .nextToken(nextToken)
                         .build(),
-                applicationInsightsClient::listApplications);
+                applicationInsightsClient::listApplications, proxy);
+    }
+
+    public static Stream<ListApplicationsResponse> streamApplicationInsightsApplicationPages(
+            String nextToken,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient) {
+        return new Paginator<>(
+                nextToken,
+                pageToken -> listApplicationInsightsApplications(pageToken, proxy, applicationInsightsClient),
+                ListApplicationsResponse::applicationInfoList,
+                ListApplicationsResponse::nextToken)
+                .pages();
     }
 
     public static List<String> getAllCustomComponentNamesToCreate(ResourceModel model) {
@@ -950,4 +1055,14 @@ public class HandlerHelper {
         matcher.matches();
         return matcher.group(1);
     }
+
+    public static double getNonNegativeVariable(final String variableName, final double defaultValue) {
+        try {
+            return Math.max(0, Optional.ofNullable(System.getenv(variableName))
+                    .map(Double::parseDouble)
+                    .orElse(defaultValue));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
 }
@@ -0,0 +1,312 @@
+package software.amazon.applicationinsights.application;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.CreateComponentRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DeleteApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DeleteComponentRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentConfigurationRecommendationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateComponentRequest;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static software.amazon.applicationinsights.application.Constants.CONTAINER_STATE_CACHE_MAX_ENTRIES;
+import static software.amazon.applicationinsights.application.Constants.CONTAINER_STATE_CACHE_TTL_SECONDS_VARIABLE;
+import static software.amazon.applicationinsights.application.Constants.DEFAULT_MUTATING_CALLS_PER_SECOND;
+import static software.amazon.applicationinsights.application.Constants.DEFAULT_READ_CALLS_PER_SECOND;
+import static software.amazon.applicationinsights.application.Constants.MUTATING_CALLS_BURST;
+import static software.amazon.applicationinsights.application.Constants.MUTATING_CALLS_PER_SECOND_VARIABLE;
+import static software.amazon.applicationinsights.application.Constants.READ_CALLS_BURST;
+import static software.amazon.applicationinsights.application.Constants.READ_CALLS_PER_SECOND_VARIABLE;
+import static software.amazon.applicationinsights.application.Constants.RECOMMENDATION_CACHE_MAX_ENTRIES;
+import static software.amazon.applicationinsights.application.Constants.RECOMMENDATION_CACHE_TTL_SECONDS;
+
+/**
+ * Invokes Application Insights through the proxy of the handler invocation and memoizes the responses of
+ * describe and list calls, so the same read does not hit the service twice within one invocation.
+ * A new proxy is handed to every invocation, so the cache is kept per proxy and goes away with it.
+ * Every write through this class invalidates the cached reads of its invocation which it may have changed, and so
+ * does every poll round of a step graph, since the state it polls for changes on the service side without any write.
+ * Listings can also be kept across the invocations served by a warm container, when the container state cache is
+ * turned on with the CONTAINER_STATE_CACHE_TTL_SECONDS environment variable and the handler has bound its invocation
+ * to an account and region. Configuration recommendations are kept across invocations of a bound scope by default,
+ * for a few minutes. Listings kept across invocations are only good enough for planning: the service changes
+ * application state on its own too, e.g. it discovers the components of account based applications, so the reads
+ * which verify that items finished are made with readFresh and always go to the service.
+ * Calls which do hit the service are paced by one token bucket for describe and list calls and one for mutating
+ * calls, shared by all invocations of the container. Their rates are set with the READ_CALLS_PER_SECOND and
+ * MUTATING_CALLS_PER_SECOND environment variables, a rate of 0 turns pacing off.
+ */
+public class InvocationScopedApi {
+
+    private static final Map<AmazonWebServicesClientProxy, Map<AwsRequest, AwsResponse>> CACHED_RESPONSES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<AmazonWebServicesClientProxy, String> INVOCATION_SCOPES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<AmazonWebServicesClientProxy, ExecutionBudget> EXECUTION_BUDGETS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ThreadLocal<Boolean> FRESH_READS = ThreadLocal.withInitial(() -> false);
+    private static final ContainerStateCache CONTAINER_STATE_CACHE = new ContainerStateCache(
+            (long) HandlerHelper.getNonNegativeVariable(CONTAINER_STATE_CACHE_TTL_SECONDS_VARIABLE, 0) * 1000L,
+            CONTAINER_STATE_CACHE_MAX_ENTRIES);
+    private static final ContainerStateCache RECOMMENDATION_STATE_CACHE = new ContainerStateCache(
+            RECOMMENDATION_CACHE_TTL_SECONDS * 1000L, RECOMMENDATION_CACHE_MAX_ENTRIES);
+    private static volatile TokenBucket readTokenBucket = new TokenBucket(
+            HandlerHelper.getNonNegativeVariable(READ_CALLS_PER_SECOND_VARIABLE, DEFAULT_READ_CALLS_PER_SECOND), READ_CALLS_BURST);
+    private static volatile TokenBucket mutationTokenBucket = new TokenBucket(
+            HandlerHelper.getNonNegativeVariable(MUTATING_CALLS_PER_SECOND_VARIABLE, DEFAULT_MUTATING_CALLS_PER_SECOND), MUTATING_CALLS_BURST);
+    private static final ScheduledExecutorService DELAYED_CALL_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "delayed-call");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Binds the invocation to the account and region it is made for, the listings of the invocation
+     * are only shared with other invocations for the same account and region.
+     */
+    public static void bindInvocationScope(
+            final AmazonWebServicesClientProxy proxy,
+            final String awsAccountId,
+            final String region) {
+        if (awsAccountId != null && region != null) {
+            INVOCATION_SCOPES.put(proxy, awsAccountId + "/" + region);
+        }
+    }
+
+    /**
+     * Binds the invocation to its execution budget, calls of the invocation then fail with
+     * ExecutionBudgetExhaustedException instead of waiting for a token past the end of the budget.
+     */
+    public static void bindExecutionBudget(
+            final AmazonWebServicesClientProxy proxy,
+            final ExecutionBudget executionBudget) {
+        EXECUTION_BUDGETS.put(proxy, executionBudget);
+    }
+
+    /**
+     * Milliseconds the invocation can still wait, unbounded when it has no execution budget bound.
+     */
+    public static long getRemainingMillis(final AmazonWebServicesClientProxy proxy) {
+        ExecutionBudget executionBudget = EXECUTION_BUDGETS.get(proxy);
+        return executionBudget == null ? Long.MAX_VALUE : executionBudget.getRemainingMillis();
+    }
+
+    public static <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT read(
+            final RequestT request,
+            final Function<RequestT, ResponseT> requestFunction,
+            final AmazonWebServicesClientProxy proxy) {
+        Map<AwsRequest, AwsResponse> cachedResponses;
+        synchronized (CACHED_RESPONSES) {
+            cachedResponses = CACHED_RESPONSES.computeIfAbsent(proxy, invocationProxy -> Collections.synchronizedMap(new HashMap<>()));
+        }
+
+        @SuppressWarnings("unchecked")
+        ResponseT cachedResponse = (ResponseT) cachedResponses.get(request);
+        if (cachedResponse != null) {
+            return cachedResponse;
+        }
+
+        // failed reads are not cached, they are retried or fail the handler anyway
+        acquire(readTokenBucket, request, proxy);
+        ResponseT response = proxy.injectCredentialsAndInvokeV2(request, requestFunction);
+        if (response != null) {
+            cachedResponses.put(request, response);
+        }
+        return response;
+    }
+
+    /**
+     * Reads asynchronously, sharing the cached reads of the invocation with the synchronous reads.
+     */
+    public static <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> readAsync(
+            final RequestT request,
+            final Function<RequestT, CompletableFuture<ResponseT>> requestFunction,
+            final AmazonWebServicesClientProxy proxy) {
+        Map<AwsRequest, AwsResponse> cachedResponses;
+        synchronized (CACHED_RESPONSES) {
+            cachedResponses = CACHED_RESPONSES.computeIfAbsent(proxy, invocationProxy -> Collections.synchronizedMap(new HashMap<>()));
+        }
+
+        @SuppressWarnings("unchecked")
+        ResponseT cachedResponse = (ResponseT) cachedResponses.get(request);
+        if (cachedResponse != null) {
+            return CompletableFuture.completedFuture(cachedResponse);
+        }
+
+        // a read which has to wait for its token is started later without blocking the caller
+        long waitMillis = readTokenBucket.reserve(getRemainingMillis(proxy));
+        CompletableFuture<Void> tokenReady = new CompletableFuture<>();
+        if (waitMillis < 0) {
+            tokenReady.completeExceptionally(budgetExhausted(request));
+        } else if (waitMillis > 0) {
+            DELAYED_CALL_SCHEDULER.schedule(() -> tokenReady.complete(null), waitMillis, TimeUnit.MILLISECONDS);
+        } else {
+            tokenReady.complete(null);
+        }
+
+        return tokenReady
+                .thenCompose(ready -> proxy.injectCredentialsAndInvokeV2Async(request, requestFunction))
+                .thenApply(response -> {
+                    if (response != null) {
+                        cachedResponses.put(request, response);
+                    }
+                    return response;
+                });
+    }
+
+    /**
+     * Reads state of the resource group which only changes through our own writes,
+     * from the container state cache when an earlier invocation has listed it recently.
+     */
+    public static <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT readAcrossInvocations(
+            final RequestT request,
+            final Function<RequestT, ResponseT> requestFunction,
+            final AmazonWebServicesClientProxy proxy) {
+        String scope = INVOCATION_SCOPES.get(proxy);
+        ContainerStateCache containerStateCache = getContainerStateCache(request);
+        if (scope == null || !containerStateCache.isEnabled()) {
+            return read(request, requestFunction, proxy);
+        }
+
+        String resourceGroupName = getResourceGroupName(request);
+
+        // fresh reads still refresh the container state cache for the planning of later invocations
+        @SuppressWarnings("unchecked")
+        ResponseT cachedResponse = FRESH_READS.get() ? null : (ResponseT) containerStateCache.get(scope, resourceGroupName, request);
+        if (cachedResponse != null) {
+            return cachedResponse;
+        }
+
+        ResponseT response = read(request, requestFunction, proxy);
+        if (response != null) {
+            containerStateCache.put(scope, resourceGroupName, request, response);
+        }
+        return response;
+    }
+
+    /**
+     * Makes the reads of the current thread within the supplier bypass the container state cache,
+     * reads are still memoized within the invocation.
+     */
+    public static <T> T readFresh(final Supplier<T> reads) {
+        boolean freshReads = FRESH_READS.get();
+        FRESH_READS.set(true);
+        try {
+            return reads.get();
+        } finally {
+            FRESH_READS.set(freshReads);
+        }
+    }
+
+    public static <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT write(
+            final RequestT request,
+            final Function<RequestT, ResponseT> requestFunction,
+            final AmazonWebServicesClientProxy proxy) {
+        acquire(mutationTokenBucket, request, proxy);
+        try {
+            return proxy.injectCredentialsAndInvokeV2(request, requestFunction);
+        } finally {
+            // a write which failed may still have been applied in part
+            Map<AwsRequest, AwsResponse> cachedResponses = CACHED_RESPONSES.get(proxy);
+            if (cachedResponses != null) {
+                cachedResponses.keySet().removeIf(read -> isStaleAfter(read, request));
+            }
+            CONTAINER_STATE_CACHE.invalidate(getResourceGroupName(request), read -> isStaleAfter(read, request));
+            RECOMMENDATION_STATE_CACHE.invalidate(getResourceGroupName(request), read -> isStaleAfter(read, request));
+        }
+    }
+
+    /**
+     * Drops the cached reads of every invocation which may have changed on the service side since they were made.
+     */
+    public static void invalidateAll() {
+        synchronized (CACHED_RESPONSES) {
+            CACHED_RESPONSES.values().forEach(cachedResponses ->
+                    cachedResponses.keySet().removeIf(read -> isStaleAfter(read, null)));
+        }
+    }
+
+    // recommendations are cached by (resource group, component, tier) on their own, with a time to live by default
+    private static ContainerStateCache getContainerStateCache(final AwsRequest read) {
+        return read instanceof DescribeComponentConfigurationRecommendationRequest ?
+                RECOMMENDATION_STATE_CACHE : CONTAINER_STATE_CACHE;
+    }
+
+    // configuration recommendations only depend on the resources of the components,
+    // other reads go stale after any write or poll interval
+    private static boolean isStaleAfter(final AwsRequest read, final AwsRequest write) {
+        if (read instanceof DescribeComponentConfigurationRecommendationRequest) {
+            return write instanceof CreateComponentRequest
+                    || write instanceof UpdateComponentRequest
+                    || write instanceof DeleteComponentRequest
+                    || write instanceof CreateApplicationRequest
+                    || write instanceof DeleteApplicationRequest;
+        }
+
+        return true;
+    }
+
+    // requests address the application either by resource group name or by application ARN,
+    // an ARN which can not be parsed stands for itself
+    private static String getResourceGroupName(final AwsRequest request) {
+        Optional<String> resourceGroupName = request.getValueForField("ResourceGroupName", String.class);
+        if (resourceGroupName.isPresent()) {
+            return resourceGroupName.get();
+        }
+
+        return request.getValueForField("ResourceARN", String.class)
+                .map(applicationArn -> {
+                    try {
+                        return HandlerHelper.extractResourceGroupNameFromApplicationArn(applicationArn);
+                    } catch (IllegalStateException e) {
+                        return applicationArn;
+                    }
+                })
+                .orElse(null);
+    }
+
+    private static void acquire(final TokenBucket tokenBucket, final AwsRequest request, final AmazonWebServicesClientProxy proxy) {
+        if (!tokenBucket.acquire(getRemainingMillis(proxy))) {
+            throw budgetExhausted(request);
+        }
+    }
+
+    private static ExecutionBudgetExhaustedException budgetExhausted(final AwsRequest request) {
+        return new ExecutionBudgetExhaustedException(String.format(
+                "%s was not made as its rate limiting token is not available within the execution budget",
+                request.getClass().getSimpleName()));
+    }
+
+    static TokenBucket getReadTokenBucket() {
+        return readTokenBucket;
+    }
+
+    static TokenBucket getMutationTokenBucket() {
+        return mutationTokenBucket;
+    }
+
+    // lets tests pace the calls at rates of their own
+    static void setTokenBuckets(final TokenBucket readBucket, final TokenBucket mutationBucket) {
+        readTokenBucket = readBucket;
+        mutationTokenBucket = mutationBucket;
+    }
+
+    public static String describeRateLimiting() {
+        return String.format("%d reads waited %d ms for tokens, %d mutating calls waited %d ms for tokens",
+                readTokenBucket.getDelayedCalls(), readTokenBucket.getTotalWaitMillis(),
+                mutationTokenBucket.getDelayedCalls(), mutationTokenBucket.getTotalWaitMillis());
+    }
+}
@@ -0,0 +1,128 @@
+package software.amazon.applicationinsights.application;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministically ordered list of the item identifiers a handler can process, derived from the resource models
+ * which CloudFormation passes to every invocation. Item lists are kept in CallbackContext as a bitmap over the
+ * universe, so the callback payload does not grow with the length of the identifiers. Items which are not part
+ * of the universe are kept as they are.
+ */
+public class ItemUniverse {
+
+    private final List<String> items;
+    private final Map<String, Integer> itemIndexes = new HashMap<>();
+
+    private ItemUniverse(Collection<String> items) {
+        this.items = Collections.unmodifiableList(items.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList()));
+        for (int i = 0; i < this.items.size(); i++) {
+            itemIndexes.put(this.items.get(i), i);
+        }
+    }
+
+    public static ItemUniverse of(Collection<String> items) {
+        return new ItemUniverse(items);
+    }
+
+    public static ItemUniverse fromModels(ResourceModel... models) {
+        List<String> items = new ArrayList<>();
+        for (ResourceModel model : models) {
+            if (model == null) {
+                continue;
+            }
+
+            Optional.ofNullable(model.getResourceGroupName()).ifPresent(items::add);
+            Optional.ofNullable(model.getTags()).orElse(Collections.emptyList())
+                    .forEach(tag -> items.add(tag.getKey()));
+            items.addAll(HandlerHelper.getAllCustomComponentNamesToCreate(model));
+            Optional.ofNullable(model.getComponentMonitoringSettings()).orElse(Collections.emptyList())
+                    .forEach(componentMonitoringSetting -> {
+                        Optional.ofNullable(componentMonitoringSetting.getComponentName()).ifPresent(items::add);
+                        Optional.ofNullable(componentMonitoringSetting.getComponentARN()).ifPresent(items::add);
+                    });
+            items.addAll(HandlerHelper.getModelLogPatternIdentifiers(model));
+        }
+
+        return new ItemUniverse(items);
+    }
+
+    public ItemUniverse union(Collection<String> otherItems) {
+        List<String> allItems = new ArrayList<>(items);
+        allItems.addAll(otherItems);
+        return new ItemUniverse(allItems);
+    }
+
+    public boolean contains(String item) {
+        return itemIndexes.containsKey(item);
+    }
+
+    /**
+     * Encodes the items of the universe as a base64 bitmap, items which are not part of the universe
+     * are added to literalItems.
+     */
+    public String encode(Collection<String> itemsToEncode, List<String> literalItems) {
+        BitSet bitmap = new BitSet(items.size());
+        for (String item : itemsToEncode) {
+            Integer index = itemIndexes.get(item);
+            if (index == null) {
+                literalItems.add(item);
+            } else {
+                bitmap.set(index);
+            }
+        }
+
+        return bitmap.isEmpty() ? null : Base64.getEncoder().encodeToString(bitmap.toByteArray());
+    }
+
+    public List<String> decode(String encodedBitmap) {
+        List<String> decodedItems = new ArrayList<>();
+        if (encodedBitmap == null || encodedBitmap.isEmpty()) {
+            return decodedItems;
+        }
+
+        BitSet bitmap = BitSet.valueOf(Base64.getDecoder().decode(encodedBitmap));
+        for (int index = bitmap.nextSetBit(0); index >= 0; index = bitmap.nextSetBit(index + 1)) {
+            if (index >= items.size()) {
+                throw new IllegalStateException(String.format(
+                        "Item index %d is out of the item universe of size %d", index, items.size()));
+            }
+            decodedItems.add(items.get(index));
+        }
+
+        return decodedItems;
+    }
+
+    public String fingerprint() {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            for (String item : items) {
+                messageDigest.update(item.getBytes(StandardCharsets.UTF_8));
+                messageDigest.update((byte) 0);
+            }
+            return Base64.getEncoder().encodeToString(messageDigest.digest()).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int size() {
+        return items.size();
+    }
+}
@@ -1,5 +1,6 @@
 package software.amazon.applicationinsights.application;
 
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsAsyncClient;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.awssdk.services.applicationinsights.model.ListApplicationsResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -10,10 +11,32 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
+import static software.amazon.applicationinsights.application.Constants.IDENTIFIERS_LIST_PROJECTION;
+import static software.amazon.applicationinsights.application.Constants.LIST_MAX_CONCURRENT_READS;
+import static software.amazon.applicationinsights.application.Constants.LIST_PROJECTION_VARIABLE;
+
+/**
+ * Lists the applications of one ListApplications page, empty pages are skipped. The models of the applications on the page are read
+ * concurrently, bounded by one concurrency limiter shared by all of them. When the LIST_PROJECTION environment
+ * variable is set to IDENTIFIERS, only the primary identifier and resource group name of the applications are
+ * returned, which are known from ListApplications alone.
+ */
 public class ListHandler extends BaseHandler<CallbackContext> {
 
     private final ApplicationInsightsClient applicationInsightsClient = ApplicationInsightsClient.create();
+    private final ApplicationInsightsAsyncClient applicationInsightsAsyncClient = ApplicationInsightsClients.getAsyncClient();
+    private final boolean identifiersOnly;
+
+    public ListHandler() {
+        this(IDENTIFIERS_LIST_PROJECTION.equals(System.getenv(LIST_PROJECTION_VARIABLE)));
+    }
+
+    ListHandler(final boolean identifiersOnly) {
+        this.identifiersOnly = identifiersOnly;
+    }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -22,13 +45,21 @@ public class ListHandler extends BaseHandler<CallbackContext> {
         final CallbackContext callbackContext,
         final Logger logger) {
 
+        InvocationScopedApi.bindExecutionBudget(proxy, ExecutionBudget.forInvocation());
+        // the listings of the applications are shared with other invocations for the same account and region
+        InvocationScopedApi.bindInvocationScope(proxy, request.getAwsAccountId(), request.getRegion());
         final List<ResourceModel> models = new ArrayList<>();
 
         logger.log("List Handler called");
 
         ListApplicationsResponse listApplicationsResponse;
         try {
-            listApplicationsResponse = HandlerHelper.listApplicationInsightsApplications(request.getNextToken(), proxy, applicationInsightsClient);
+            // pages may come back empty while more pages follow, the first page with applications is listed
+            listApplicationsResponse = HandlerHelper.streamApplicationInsightsApplicationPages(
+                            request.getNextToken(), proxy, applicationInsightsClient)
+                    .filter(page -> !page.applicationInfoList().isEmpty() || page.nextToken() == null)
+                    .findFirst()
+                    .get();
         } catch (Exception ex) {
             logger.log(String.format("listApplicationInsightsApplications failed with exception %s", ex.getMessage()));
             return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
@@ -36,13 +67,23 @@ public class ListHandler extends BaseHandler<CallbackContext> {
 
         request.setNextToken(listApplicationsResponse.nextToken());
 
-        try {
+        if (identifiersOnly) {
             listApplicationsResponse.applicationInfoList().stream()
                     .forEach(applicationInfo ->
-                            models.add(HandlerHelper.generateReadModel(applicationInfo.resourceGroupName(), null, request, proxy, applicationInsightsClient)));
-        } catch (Exception ex) {
-            logger.log(String.format("generateReadModel failed with exception %s", ex.getMessage()));
-            return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
+                            models.add(HandlerHelper.generateIdentifierModel(applicationInfo.resourceGroupName(), request)));
+        } else {
+            try {
+                ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(LIST_MAX_CONCURRENT_READS);
+                List<CompletableFuture<ResourceModel>> readModelFutures = listApplicationsResponse.applicationInfoList().stream()
+                        .map(applicationInfo -> HandlerHelper.generateReadModelAsync(
+                                applicationInfo.resourceGroupName(), null, request, proxy, applicationInsightsAsyncClient, concurrencyLimiter))
+                        .collect(Collectors.toList());
+                HandlerHelper.joinAll(proxy, readModelFutures.toArray(new CompletableFuture<?>[0]));
+                readModelFutures.forEach(readModelFuture -> models.add(readModelFuture.join()));
+            } catch (Exception ex) {
+                logger.log(String.format("generateReadModel failed with exception %s", ex.getMessage()));
+                return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
+            }
         }
 
         return ProgressEvent.<ResourceModel, CallbackContext>builder()
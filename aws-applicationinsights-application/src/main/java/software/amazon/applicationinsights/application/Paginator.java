@@ -0,0 +1,103 @@
+package software.amazon.applicationinsights.application;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily iterates over the items of a paginated list call. A page is only fetched once the items of the pages
+ * before it have been consumed, so a stream which stops early (e.g. anyMatch, findFirst or limit) does not fetch
+ * the remaining pages, and the items are never all held in memory unless the caller collects them.
+ * Every iteration starts over from the first page.
+ */
+public class Paginator<ResponseT, ItemT> implements Iterable<ItemT> {
+
+    private final String firstToken;
+    private final Function<String, ResponseT> fetchPage;
+    private final Function<ResponseT, List<ItemT>> pageItems;
+    private final Function<ResponseT, String> nextToken;
+
+    public Paginator(
+            final Function<String, ResponseT> fetchPage,
+            final Function<ResponseT, List<ItemT>> pageItems,
+            final Function<ResponseT, String> nextToken) {
+        this(null, fetchPage, pageItems, nextToken);
+    }
+
+    public Paginator(
+            final String firstToken,
+            final Function<String, ResponseT> fetchPage,
+            final Function<ResponseT, List<ItemT>> pageItems,
+            final Function<ResponseT, String> nextToken) {
+        this.firstToken = firstToken;
+        this.fetchPage = fetchPage;
+        this.pageItems = pageItems;
+        this.nextToken = nextToken;
+    }
+
+    public Stream<ItemT> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Streams the pages themselves, for callers which need the next token of the pages they have consumed.
+     */
+    public Stream<ResponseT> pages() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(pageIterator(), Spliterator.ORDERED), false);
+    }
+
+    @Override
+    public Iterator<ItemT> iterator() {
+        final Iterator<ResponseT> pages = pageIterator();
+        return new Iterator<ItemT>() {
+            private Iterator<ItemT> currentPageItems = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                // pages may come back empty while more pages follow
+                while (!currentPageItems.hasNext() && pages.hasNext()) {
+                    List<ItemT> items = pageItems.apply(pages.next());
+                    currentPageItems = items == null ? Collections.emptyIterator() : items.iterator();
+                }
+                return currentPageItems.hasNext();
+            }
+
+            @Override
+            public ItemT next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return currentPageItems.next();
+            }
+        };
+    }
+
+    private Iterator<ResponseT> pageIterator() {
+        return new Iterator<ResponseT>() {
+            private String token = firstToken;
+            private boolean lastPageFetched = false;
+
+            @Override
+            public boolean hasNext() {
+                return !lastPageFetched;
+            }
+
+            @Override
+            public ResponseT next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ResponseT page = fetchPage.apply(token);
+                token = nextToken.apply(page);
+                lastPageFetched = token == null;
+                return page;
+            }
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package software.amazon.applicationinsights.application;
 
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsAsyncClient;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.awssdk.services.applicationinsights.model.ValidationException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
@@ -10,6 +11,7 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 public class ReadHandler extends BaseHandler<CallbackContext> {
 
     private final ApplicationInsightsClient applicationInsightsClient = ApplicationInsightsClient.create();
+    private final ApplicationInsightsAsyncClient applicationInsightsAsyncClient = ApplicationInsightsClients.getAsyncClient();
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -18,7 +20,10 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
         final CallbackContext callbackContext,
         final Logger logger) {
 
+        InvocationScopedApi.bindExecutionBudget(proxy, ExecutionBudget.forInvocation());
         final ResourceModel model = request.getDesiredResourceState();
+        // the listings of the application are shared with other invocations for the same account and region
+        InvocationScopedApi.bindInvocationScope(proxy, request.getAwsAccountId(), request.getRegion());
 
         // Read/Delete handlers are only guaranteed to receive the primaryIdentifier values
         logger.log(String.format("Read Handler called with application ARN %s", model.getApplicationARN()));
@@ -46,7 +51,7 @@ public class ReadHandler extends BaseHandler<CallbackContext> {
 
         ResourceModel outputModel;
         try {
-            outputModel = HandlerHelper.generateReadModel(resourceGroupName, model, request, proxy, applicationInsightsClient);
+            outputModel = HandlerHelper.generateReadModel(resourceGroupName, model, request, proxy, applicationInsightsAsyncClient);
         } catch (Exception ex) {
             logger.log(String.format("generateReadModel failed with exception %s", ex.getMessage()));
             return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
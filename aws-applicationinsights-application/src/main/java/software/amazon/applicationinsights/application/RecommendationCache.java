@@ -0,0 +1,100 @@
+package software.amazon.applicationinsights.application;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import software.amazon.applicationinsights.application.InputConfiguration.InputComponentConfiguration;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps parsed component configuration recommendations by the hash of their content, so components of the same tier
+ * which are recommended the same configuration share one parsed object and the recommendation is parsed and
+ * serialized once. The least recently used recommendations are evicted once the cache is full. The responses of
+ * DescribeComponentConfigurationRecommendation themselves are cached by (resource group, component, tier)
+ * in InvocationScopedApi, across the invocations of the container for a few minutes.
+ */
+public class RecommendationCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES, true)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final LinkedHashMap<String, ParsedRecommendation> parsedRecommendations;
+
+    public RecommendationCache(final int maxEntries) {
+        this.parsedRecommendations = new LinkedHashMap<String, ParsedRecommendation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedRecommendation> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed recommendation, parsing it only when no recommendation with the same content is cached.
+     * The parsed configuration is shared and must not be modified.
+     */
+    public ParsedRecommendation get(final String recommendedComponentConfiguration) throws IOException {
+        String contentHash = hash(recommendedComponentConfiguration);
+        synchronized (parsedRecommendations) {
+            ParsedRecommendation parsedRecommendation = parsedRecommendations.get(contentHash);
+            if (parsedRecommendation != null) {
+                return parsedRecommendation;
+            }
+        }
+
+        InputComponentConfiguration inputComponentConfiguration =
+                MAPPER.readValue(recommendedComponentConfiguration, InputComponentConfiguration.class);
+        ParsedRecommendation parsedRecommendation = new ParsedRecommendation(
+                contentHash,
+                inputComponentConfiguration,
+                MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(inputComponentConfiguration));
+        synchronized (parsedRecommendations) {
+            parsedRecommendations.put(contentHash, parsedRecommendation);
+        }
+        return parsedRecommendation;
+    }
+
+    public int size() {
+        synchronized (parsedRecommendations) {
+            return parsedRecommendations.size();
+        }
+    }
+
+    private static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Getter
+    public static class ParsedRecommendation {
+        private final String contentHash;
+        private final InputComponentConfiguration inputComponentConfiguration;
+        // the recommendation as it is submitted in DEFAULT mode
+        private final String componentConfiguration;
+
+        ParsedRecommendation(
+                String contentHash,
+                InputComponentConfiguration inputComponentConfiguration,
+                String componentConfiguration) {
+            this.contentHash = contentHash;
+            this.inputComponentConfiguration = inputComponentConfiguration;
+            this.componentConfiguration = componentConfiguration;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package software.amazon.applicationinsights.application;
+
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tag, custom component and log pattern deltas of an update. The application state is read once, with one
+ * ListTagsForResource, one ListComponents listing and one ListLogPatterns call, when any of the deltas is first
+ * accessed. The planned items are then kept with the steps in CallbackContext, so later invocations do not list
+ * the application state again.
+ */
+public class ReconciliationPlan {
+
+    private final ResourceModel model;
+    private final AmazonWebServicesClientProxy proxy;
+    private final ApplicationInsightsClient applicationInsightsClient;
+    private final Logger logger;
+
+    private boolean planned = false;
+    private List<String> tagKeysToDelete;
+    private List<String> tagKeysToCreate;
+    private List<String> customComponentNamesToDelete;
+    private List<String> customComponentNamesToCreate;
+    private List<String> logPatternIdentifiersToDelete;
+    private List<String> logPatternIdentifiersToCreate;
+    private List<String> logPatternIdentifiersToUpdate;
+
+    public ReconciliationPlan(
+            final ResourceModel model,
+            final AmazonWebServicesClientProxy proxy,
+            final ApplicationInsightsClient applicationInsightsClient,
+            final Logger logger) {
+        this.model = model;
+        this.proxy = proxy;
+        this.applicationInsightsClient = applicationInsightsClient;
+        this.logger = logger;
+    }
+
+    public List<String> getTagKeysToDelete() {
+        plan();
+        return new ArrayList<>(tagKeysToDelete);
+    }
+
+    public List<String> getTagKeysToCreate() {
+        plan();
+        return new ArrayList<>(tagKeysToCreate);
+    }
+
+    public List<String> getCustomComponentNamesToDelete() {
+        plan();
+        return new ArrayList<>(customComponentNamesToDelete);
+    }
+
+    public List<String> getCustomComponentNamesToCreate() {
+        plan();
+        return new ArrayList<>(customComponentNamesToCreate);
+    }
+
+    // log patterns to delete, create and update are reconciled by one step
+    public List<String> getLogPatternIdentifiersToReconcile() {
+        plan();
+        List<String> logPatternIdentifiersToReconcile = new ArrayList<>(logPatternIdentifiersToDelete);
+        logPatternIdentifiersToReconcile.addAll(logPatternIdentifiersToCreate);
+        logPatternIdentifiersToReconcile.addAll(logPatternIdentifiersToUpdate);
+        return logPatternIdentifiersToReconcile;
+    }
+
+    private void plan() {
+        if (planned) {
+            return;
+        }
+
+        List<software.amazon.awssdk.services.applicationinsights.model.Tag> appTags =
+                HandlerHelper.getApplicationTags(model.getApplicationARN(), proxy, applicationInsightsClient);
+        tagKeysToDelete = HandlerHelper.getTagKeysToDelete(model, appTags);
+        tagKeysToCreate = HandlerHelper.getTagKeysToCreate(model, appTags);
+
+        // custom components whose resource list changed are deleted and created again
+        List<String> appComponentNames = HandlerHelper.getAppCustomComponentNames(
+                model.getResourceGroupName(), proxy, applicationInsightsClient);
+        customComponentNamesToDelete = HandlerHelper.getCustomComponentNamesToDelete(
+                model, appComponentNames, proxy, applicationInsightsClient, logger);
+        List<String> remainingAppComponentNames = new ArrayList<>(appComponentNames);
+        remainingAppComponentNames.removeAll(customComponentNamesToDelete);
+        customComponentNamesToCreate = HandlerHelper.getCustomComponentNamesToCreate(
+                model, remainingAppComponentNames, logger);
+
+        // the listing carries pattern and rank, it is all the diff of the log patterns needs,
+        // the second pass over the listing is served from the pages read by the first one
+        Set<String> appLogPatternIdentifiers = HandlerHelper.getAppLogPatternIdentifiers(
+                model.getResourceGroupName(), proxy, applicationInsightsClient);
+        logPatternIdentifiersToDelete = HandlerHelper.getLogPatternIdentifiersToDelete(model, appLogPatternIdentifiers);
+        logPatternIdentifiersToCreate = HandlerHelper.getLogPatternIdentifiersToCreate(model, appLogPatternIdentifiers);
+        logPatternIdentifiersToUpdate = HandlerHelper.getLogPatternIdentifiersToUpdate(model,
+                HandlerHelper.streamAppLogPatterns(model.getResourceGroupName(), proxy, applicationInsightsClient));
+
+        logger.log(String.format("Reconciliation plan: tags to delete %s, tags to create %s, " +
+                        "components to delete %s, components to create %s, " +
+                        "log patterns to delete %s, log patterns to create %s, log patterns to update %s",
+                tagKeysToDelete, tagKeysToCreate,
+                customComponentNamesToDelete, customComponentNamesToCreate,
+                logPatternIdentifiersToDelete, logPatternIdentifiersToCreate, logPatternIdentifiersToUpdate));
+        planned = true;
+    }
+}
@@ -1,29 +1,70 @@
 package software.amazon.applicationinsights.application;
 
 public enum Step {
-    APP_CREATION(10),
-    APP_UPDATE(1),
-    TAG_CREATION(1),
-    TAG_DELETION(1),
-    COMPONENT_CREATION(1),
-    COMPONENT_DELETION(1),
-    LOG_PATTERN_CREATION(1),
-    LOG_PATTERN_DELETION(1),
-    LOG_PATTERN_UPDATE(1),
-    COMPONENT_CONFIGURATION(10),
-    DEFAULT_COMPONENT_CONFIGURATION(10),
-    DISABLE_COMPONENT_CONFIGURATION(1);
+    APP_CREATION(5, 30, 1, 0, 900, 30),
+    APP_UPDATE(1, 10, 1, 5000, 600, 60),
+    APP_DELETION(2, 20, 1, 5000, 900, 45),
+    TAG_CREATION(1, 10, 50, 5000, 300, 30),
+    TAG_DELETION(1, 10, 50, 5000, 300, 30),
+    COMPONENT_CREATION(1, 10, 5, 5000, 900, 90),
+    COMPONENT_DELETION(1, 10, 5, 5000, 900, 90),
+    LOG_PATTERN_RECONCILIATION(1, 10, 50, 5000, 600, 60),
+    COMPONENT_CONFIGURATION(5, 30, 50, 0, 2700, 90),
+    DEFAULT_COMPONENT_CONFIGURATION(5, 30, 50, 0, 2700, 90),
+    DISABLE_COMPONENT_CONFIGURATION(1, 10, 10, 5000, 1200, 120);
 
+    // wait before the first poll of a started item, polls back off from here
     private final int callBackWaitSeconds;
+    // upper bound of the backed off wait between polls
+    private final int maxCallBackWaitSeconds;
+    // max number of items of this step which can be processed at the same time
+    private final int maxConcurrentItems;
+    // how long started items are polled within the same invocation before returning IN_PROGRESS
+    private final long inInvocationPollBudgetMillis;
+    // wall-clock time the step may take from its first round before it fails as not stabilized
+    private final int timeoutSeconds;
+    // consecutive callbacks without any item finished before the step fails as not stabilized,
+    // polls within the same invocation are not counted
+    private final int maxPollAttempts;
 
-    Step(final int callBackWaitSeconds) {
+    Step(final int callBackWaitSeconds,
+         final int maxCallBackWaitSeconds,
+         final int maxConcurrentItems,
+         final long inInvocationPollBudgetMillis,
+         final int timeoutSeconds,
+         final int maxPollAttempts) {
         this.callBackWaitSeconds = callBackWaitSeconds;
+        this.maxCallBackWaitSeconds = maxCallBackWaitSeconds;
+        this.maxConcurrentItems = maxConcurrentItems;
+        this.inInvocationPollBudgetMillis = inInvocationPollBudgetMillis;
+        this.timeoutSeconds = timeoutSeconds;
+        this.maxPollAttempts = maxPollAttempts;
     }
 
     public int getCallBackWaitSeconds() {
         return this.callBackWaitSeconds;
     }
 
+    public int getMaxCallBackWaitSeconds() {
+        return this.maxCallBackWaitSeconds;
+    }
+
+    public int getMaxConcurrentItems() {
+        return this.maxConcurrentItems;
+    }
+
+    public long getInInvocationPollBudgetMillis() {
+        return this.inInvocationPollBudgetMillis;
+    }
+
+    public int getTimeoutSeconds() {
+        return this.timeoutSeconds;
+    }
+
+    public int getMaxPollAttempts() {
+        return this.maxPollAttempts;
+    }
+
     public static Step fromStepName(final String stepName) {
         for (final Step step : Step.values()) {
             if (step.name().equals(stepName)) {
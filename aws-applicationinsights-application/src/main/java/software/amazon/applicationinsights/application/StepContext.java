@@ -0,0 +1,36 @@
+package software.amazon.applicationinsights.application;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class StepContext {
+    // items which are part of the item universe are kept in the bitmaps,
+    // only the other items are kept as they are
+    private List<String> unprocessedItems;
+    private List<String> processingItems;
+    private String unprocessedItemBitmap;
+    private String processingItemBitmap;
+    // set when the items of the step are too many to be kept as they are,
+    // the item universe of the step then also includes the items the step started with
+    private String itemUniverseFingerprint;
+    // in-flight items submitted since the last callback of the step whose change the service has not been
+    // seen picking up yet, their check may still see the state from before they were submitted
+    private List<String> unsettledItems;
+    // consecutive callbacks of the step which found no item finished
+    private Integer pollAttempts;
+    // when the first round of the step was executed, the timeout of the step counts from here
+    private Long startedAtMillis;
+    // consecutive transient failures of the items which are being retried
+    private Map<String, Integer> itemRetryAttempts;
+    // the step is not executed again before this time after a transient failure
+    private Long retryAfterMillis;
+}
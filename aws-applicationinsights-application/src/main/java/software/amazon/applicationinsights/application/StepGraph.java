@@ -0,0 +1,413 @@
+package software.amazon.applicationinsights.application;
+
+import software.amazon.applicationinsights.application.StepWorkflow.BaseStepWorkflow;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static software.amazon.applicationinsights.application.Constants.IN_INVOCATION_POLL_INTERVAL_MILLIS;
+import static software.amazon.applicationinsights.application.Constants.MAX_LITERAL_ITEMS_IN_CALLBACK_CONTEXT;
+import static software.amazon.applicationinsights.application.Constants.STEP_ITEM_UNIVERSE_CACHE_MAX_ENTRIES;
+
+/**
+ * Runs the steps of a handler as a dependency graph. A step starts as soon as all the steps it depends on
+ * have finished, so independent steps make progress at the same time across callbacks and the handler
+ * completes after its critical path. Steps which do not need to wait are run within the same invocation,
+ * the state of the running steps is kept in CallbackContext between invocations, with the item lists
+ * encoded over the item universe of the handler. Steps are only executed while the execution budget of the
+ * invocation has time left, the state is checkpointed into CallbackContext once it runs out.
+ */
+public class StepGraph {
+
+    // item universes of the steps with many items built in this container, keyed by fingerprint, so the steps
+    // are resumed on callbacks served by the same container without listing their items again
+    private static final Map<String, ItemUniverse> ITEM_UNIVERSES =
+            new LinkedHashMap<String, ItemUniverse>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, ItemUniverse> eldest) {
+                    return size() > STEP_ITEM_UNIVERSE_CACHE_MAX_ENTRIES;
+                }
+            };
+
+    private final Map<Step, StepNode> stepNodes = new LinkedHashMap<>();
+    private final ItemUniverse itemUniverse;
+
+    public StepGraph(final ItemUniverse itemUniverse) {
+        this.itemUniverse = itemUniverse;
+    }
+
+    /**
+     * Declares a step. The items of the step are only computed when the step starts,
+     * dependencies have to be declared before the steps depending on them.
+     */
+    public StepGraph step(
+            final Step step,
+            final List<Step> dependencies,
+            final Supplier<List<String>> itemsSupplier,
+            final Function<StepContext, BaseStepWorkflow> workflowFactory) {
+        return addStep(step, dependencies, itemsSupplier, workflowFactory, false);
+    }
+
+    /**
+     * Declares a step whose items are planned up front: the items are computed on the first invocation
+     * together with the items of the other planned steps, the step still starts once its dependencies finish.
+     */
+    public StepGraph plannedStep(
+            final Step step,
+            final List<Step> dependencies,
+            final Supplier<List<String>> itemsSupplier,
+            final Function<StepContext, BaseStepWorkflow> workflowFactory) {
+        return addStep(step, dependencies, itemsSupplier, workflowFactory, true);
+    }
+
+    private StepGraph addStep(
+            final Step step,
+            final List<Step> dependencies,
+            final Supplier<List<String>> itemsSupplier,
+            final Function<StepContext, BaseStepWorkflow> workflowFactory,
+            final boolean planned) {
+        for (Step dependency : dependencies) {
+            if (!stepNodes.containsKey(dependency)) {
+                throw new IllegalArgumentException(String.format(
+                        "Step %s depends on step %s which is not declared before it", step.name(), dependency.name()));
+            }
+        }
+        if (stepNodes.containsKey(step)) {
+            throw new IllegalArgumentException(String.format("Step %s is declared more than once", step.name()));
+        }
+
+        stepNodes.put(step, new StepNode(new HashSet<>(dependencies), itemsSupplier, workflowFactory, planned));
+        return this;
+    }
+
+    public ProgressEvent<ResourceModel, CallbackContext> execute(
+            final ResourceModel model,
+            final CallbackContext callbackContext,
+            final ExecutionBudget executionBudget,
+            final Logger logger) {
+        // item universes of the steps which have too many items to be kept as they are
+        Map<Step, ItemUniverse> stepItemUniverses = new HashMap<>();
+        Map<String, StepContext> stepContexts = new LinkedHashMap<>();
+        Optional.ofNullable(callbackContext.getStepContexts()).orElse(Collections.emptyMap())
+                .forEach((stepName, stepContext) -> stepContexts.put(stepName,
+                        decodeStepContext(Step.fromStepName(stepName), stepContext, stepItemUniverses, logger)));
+        List<String> finishedSteps = new ArrayList<>(
+                Optional.ofNullable(callbackContext.getFinishedSteps()).orElse(Collections.emptyList()));
+        if (callbackContext.getStepContexts() == null && callbackContext.getFinishedSteps() == null) {
+            planSteps(stepContexts, stepItemUniverses, logger);
+        }
+        Map<Step, Integer> callbackDelaySeconds = new LinkedHashMap<>();
+
+        long invocationStartMillis = System.currentTimeMillis();
+        Set<Step> executedInInvocation = new HashSet<>();
+        while (true) {
+            // every running step is executed once per round, steps unblocked by a finished step
+            // are started and executed within the same round
+            Set<Step> executedSteps = new HashSet<>();
+            boolean anyStepFinished = true;
+            while (anyStepFinished) {
+                anyStepFinished = false;
+                startReadySteps(stepContexts, finishedSteps, stepItemUniverses, logger);
+
+                for (Map.Entry<Step, StepNode> stepNode : stepNodes.entrySet()) {
+                    Step step = stepNode.getKey();
+                    StepContext stepContext = stepContexts.get(step.name());
+                    // a planned step waits for its dependencies,
+                    // a step is polled again within current invocation only while it has poll budget left
+                    if (stepContext == null || executedSteps.contains(step)
+                            || !allDependenciesFinished(stepNode.getValue(), finishedSteps)
+                            || (executedInInvocation.contains(step) && !withinPollBudget(step, invocationStartMillis, executionBudget))) {
+                        continue;
+                    }
+                    if (executionBudget.isExhausted()) {
+                        logger.log(String.format("Execution budget is exhausted, checkpointing before step %s", step.name()));
+                        break;
+                    }
+
+                    executedSteps.add(step);
+                    boolean callbackRound = executedInInvocation.add(step);
+                    ProgressEvent<ResourceModel, StepContext> stepProgressEvent =
+                            stepNode.getValue().getWorkflowFactory().apply(stepContext).execute(executionBudget, callbackRound);
+                    if (stepProgressEvent.isFailed()) {
+                        logger.log(String.format("Step %s failed: %s", step.name(), stepProgressEvent.getMessage()));
+                        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+                                .status(OperationStatus.FAILED)
+                                .errorCode(stepProgressEvent.getErrorCode())
+                                .message(stepProgressEvent.getMessage())
+                                .build();
+                    } else if (stepProgressEvent.isSuccess()) {
+                        logger.log(String.format("Step %s finished", step.name()));
+                        stepContexts.remove(step.name());
+                        finishedSteps.add(step.name());
+                        callbackDelaySeconds.remove(step);
+                        anyStepFinished = true;
+                    } else {
+                        stepContexts.put(step.name(), stepProgressEvent.getCallbackContext());
+                        callbackDelaySeconds.put(step, stepProgressEvent.getCallbackDelaySeconds());
+                    }
+                }
+            }
+
+            if (stepContexts.isEmpty()) {
+                logger.log("Rate limiting: " + InvocationScopedApi.describeRateLimiting());
+                return ProgressEvent.defaultSuccessHandler(model);
+            }
+
+            // fast steps are polled within current invocation for a short while,
+            // IN_PROGRESS is only returned when none of the running steps has poll budget left
+            boolean anyStepWithinPollBudget = callbackDelaySeconds.keySet().stream()
+                    .anyMatch(step -> withinPollBudget(step, invocationStartMillis, executionBudget));
+            if (!anyStepWithinPollBudget || !sleepBeforeNextPoll()) {
+                break;
+            }
+        }
+
+        logger.log("Rate limiting: " + InvocationScopedApi.describeRateLimiting());
+
+        // call back when the most urgent running step needs to be polled again
+        int nextCallbackDelaySeconds = callbackDelaySeconds.values().stream()
+                .mapToInt(Integer::intValue)
+                .min()
+                .orElse(Constants.TRANSITION_CALLBACK_DELAY_SECONDS);
+
+        Map<String, StepContext> encodedStepContexts = new LinkedHashMap<>();
+        stepContexts.forEach((stepName, stepContext) -> encodedStepContexts.put(stepName,
+                encodeStepContext(Step.fromStepName(stepName), stepContext, stepItemUniverses)));
+
+        return ProgressEvent.defaultInProgressHandler(
+                CallbackContext.builder()
+                        .stabilizationRetriesRemaining(callbackContext.getStabilizationRetriesRemaining() - 1)
+                        .stepContexts(encodedStepContexts)
+                        .finishedSteps(finishedSteps)
+                        .build(),
+                nextCallbackDelaySeconds,
+                model);
+    }
+
+    private void startReadySteps(
+            Map<String, StepContext> stepContexts,
+            List<String> finishedSteps,
+            Map<Step, ItemUniverse> stepItemUniverses,
+            Logger logger) {
+        for (Map.Entry<Step, StepNode> stepNode : stepNodes.entrySet()) {
+            Step step = stepNode.getKey();
+            if (stepContexts.containsKey(step.name()) || finishedSteps.contains(step.name())) {
+                continue;
+            }
+
+            if (allDependenciesFinished(stepNode.getValue(), finishedSteps)) {
+                List<String> items = Optional.ofNullable(stepNode.getValue().getItemsSupplier().get())
+                        .orElse(Collections.emptyList());
+                logger.log(String.format("Starting step %s with items %s", step.name(), items));
+                stepContexts.put(step.name(), newStepContext(step, items, stepItemUniverses));
+            }
+        }
+    }
+
+    private void planSteps(
+            Map<String, StepContext> stepContexts,
+            Map<Step, ItemUniverse> stepItemUniverses,
+            Logger logger) {
+        for (Map.Entry<Step, StepNode> stepNode : stepNodes.entrySet()) {
+            if (stepNode.getValue().isPlanned()) {
+                Step step = stepNode.getKey();
+                List<String> items = Optional.ofNullable(stepNode.getValue().getItemsSupplier().get())
+                        .orElse(Collections.emptyList());
+                logger.log(String.format("Planned step %s with items %s", step.name(), items));
+                stepContexts.put(step.name(), newStepContext(step, items, stepItemUniverses));
+            }
+        }
+    }
+
+    private static boolean allDependenciesFinished(StepNode stepNode, List<String> finishedSteps) {
+        return stepNode.getDependencies().stream()
+                .allMatch(dependency -> finishedSteps.contains(dependency.name()));
+    }
+
+    private StepContext newStepContext(Step step, List<String> items, Map<Step, ItemUniverse> stepItemUniverses) {
+        StepContext.StepContextBuilder stepContextBuilder = StepContext.builder()
+                .unprocessedItems(new ArrayList<>(items))
+                .processingItems(new ArrayList<>())
+                .pollAttempts(0);
+
+        // size guard: items which are not derived from the models, e.g. components discovered for
+        // account based applications, are only kept as they are while there are a few of them
+        ItemUniverse stepItemUniverse = stepItemUniverse(items);
+        if (stepItemUniverse != itemUniverse) {
+            stepItemUniverses.put(step, stepItemUniverse);
+            rememberItemUniverse(stepItemUniverse);
+            stepContextBuilder.itemUniverseFingerprint(stepItemUniverse.fingerprint());
+        }
+
+        return stepContextBuilder.build();
+    }
+
+    private ItemUniverse stepItemUniverse(List<String> items) {
+        List<String> literalItems = items.stream()
+                .filter(item -> !itemUniverse.contains(item))
+                .distinct()
+                .collect(Collectors.toList());
+        return literalItems.size() > MAX_LITERAL_ITEMS_IN_CALLBACK_CONTEXT ? itemUniverse.union(literalItems) : itemUniverse;
+    }
+
+    private StepContext decodeStepContext(
+            Step step,
+            StepContext stepContext,
+            Map<Step, ItemUniverse> stepItemUniverses,
+            Logger logger) {
+        ItemUniverse stepItemUniverse = itemUniverse;
+        if (stepContext.getItemUniverseFingerprint() != null) {
+            // only the fingerprint of the item universe of the step is kept in the step context, the item universe
+            // is taken from the ones this container has built or otherwise rebuilt from the items listed again
+            stepItemUniverse = rememberedItemUniverse(stepContext.getItemUniverseFingerprint());
+            if (stepItemUniverse == null) {
+                List<String> items = computeItems(step);
+                stepItemUniverse = stepItemUniverse(items);
+                if (!stepItemUniverse.fingerprint().equals(stepContext.getItemUniverseFingerprint())) {
+                    return restartStep(step, "its item universe changed", items, stepItemUniverses, logger);
+                }
+                rememberItemUniverse(stepItemUniverse);
+            }
+            stepItemUniverses.put(step, stepItemUniverse);
+        }
+
+        List<String> unprocessedItems;
+        List<String> processingItems;
+        try {
+            unprocessedItems = stepItemUniverse.decode(stepContext.getUnprocessedItemBitmap());
+            processingItems = stepItemUniverse.decode(stepContext.getProcessingItemBitmap());
+        } catch (IllegalStateException e) {
+            stepItemUniverses.remove(step);
+            return restartStep(step, e.getMessage(), computeItems(step), stepItemUniverses, logger);
+        }
+        unprocessedItems.addAll(Optional.ofNullable(stepContext.getUnprocessedItems()).orElse(Collections.emptyList()));
+        processingItems.addAll(Optional.ofNullable(stepContext.getProcessingItems()).orElse(Collections.emptyList()));
+
+        return stepContext.toBuilder()
+                .unprocessedItems(unprocessedItems)
+                .processingItems(processingItems)
+                .unprocessedItemBitmap(null)
+                .processingItemBitmap(null)
+                .build();
+    }
+
+    private List<String> computeItems(Step step) {
+        return Optional.ofNullable(stepNodes.get(step).getItemsSupplier().get())
+                .orElse(Collections.emptyList());
+    }
+
+    // a step whose state can not be decoded is started over on purpose with its items computed again,
+    // instead of failing the handler on a state it can not resume from
+    private StepContext restartStep(
+            Step step,
+            String reason,
+            List<String> items,
+            Map<Step, ItemUniverse> stepItemUniverses,
+            Logger logger) {
+        logger.log(String.format("Step %s can not be resumed as %s, starting the step over with items %s",
+                step.name(), reason, items));
+        return newStepContext(step, items, stepItemUniverses);
+    }
+
+    private static ItemUniverse rememberedItemUniverse(String fingerprint) {
+        synchronized (ITEM_UNIVERSES) {
+            return ITEM_UNIVERSES.get(fingerprint);
+        }
+    }
+
+    private static void rememberItemUniverse(ItemUniverse itemUniverse) {
+        synchronized (ITEM_UNIVERSES) {
+            ITEM_UNIVERSES.put(itemUniverse.fingerprint(), itemUniverse);
+        }
+    }
+
+    static void forgetItemUniverses() {
+        synchronized (ITEM_UNIVERSES) {
+            ITEM_UNIVERSES.clear();
+        }
+    }
+
+    private StepContext encodeStepContext(Step step, StepContext stepContext, Map<Step, ItemUniverse> stepItemUniverses) {
+        ItemUniverse stepItemUniverse = stepItemUniverses.getOrDefault(step, itemUniverse);
+        List<String> unprocessedLiteralItems = new ArrayList<>();
+        List<String> processingLiteralItems = new ArrayList<>();
+
+        return stepContext.toBuilder()
+                .unprocessedItemBitmap(stepItemUniverse.encode(
+                        Optional.ofNullable(stepContext.getUnprocessedItems()).orElse(Collections.emptyList()), unprocessedLiteralItems))
+                .processingItemBitmap(stepItemUniverse.encode(
+                        Optional.ofNullable(stepContext.getProcessingItems()).orElse(Collections.emptyList()), processingLiteralItems))
+                .unprocessedItems(unprocessedLiteralItems)
+                .processingItems(processingLiteralItems)
+                .build();
+    }
+
+    protected long getInInvocationPollBudgetMillis(Step step) {
+        return step.getInInvocationPollBudgetMillis();
+    }
+
+    private boolean withinPollBudget(Step step, long invocationStartMillis, ExecutionBudget executionBudget) {
+        return System.currentTimeMillis() + IN_INVOCATION_POLL_INTERVAL_MILLIS
+                <= invocationStartMillis + getInInvocationPollBudgetMillis(step)
+                && executionBudget.hasHeadroom(IN_INVOCATION_POLL_INTERVAL_MILLIS);
+    }
+
+    private static boolean sleepBeforeNextPoll() {
+        try {
+            Thread.sleep(IN_INVOCATION_POLL_INTERVAL_MILLIS);
+            // the next round polls for changes made on the service side, the reads of this round are stale by then
+            InvocationScopedApi.invalidateAll();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class StepNode {
+        private final Set<Step> dependencies;
+        private final Supplier<List<String>> itemsSupplier;
+        private final Function<StepContext, BaseStepWorkflow> workflowFactory;
+        private final boolean planned;
+
+        StepNode(
+                Set<Step> dependencies,
+                Supplier<List<String>> itemsSupplier,
+                Function<StepContext, BaseStepWorkflow> workflowFactory,
+                boolean planned) {
+            this.dependencies = dependencies;
+            this.itemsSupplier = itemsSupplier;
+            this.workflowFactory = workflowFactory;
+            this.planned = planned;
+        }
+
+        Set<Step> getDependencies() {
+            return dependencies;
+        }
+
+        Supplier<List<String>> getItemsSupplier() {
+            return itemsSupplier;
+        }
+
+        Function<StepContext, BaseStepWorkflow> getWorkflowFactory() {
+            return workflowFactory;
+        }
+
+        boolean isPlanned() {
+            return planned;
+        }
+    }
+}
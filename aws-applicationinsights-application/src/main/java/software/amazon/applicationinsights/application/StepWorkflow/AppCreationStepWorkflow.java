@@ -1,12 +1,13 @@
 package software.amazon.applicationinsights.application.StepWorkflow;
 
-import software.amazon.applicationinsights.application.CallbackContext;
 import software.amazon.applicationinsights.application.HandlerHelper;
 import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ResourceInUseException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
-import software.amazon.cloudformation.proxy.ProgressEvent;
 
 import static software.amazon.applicationinsights.application.Constants.APP_CREATION_FINISHED_LIFECYCLE;
 import static software.amazon.applicationinsights.application.Constants.CONFIGURATION_FINISHED_LIFECYCLE;
@@ -14,20 +15,18 @@ import static software.amazon.applicationinsights.application.Constants.CONFIGUR
 public class AppCreationStepWorkflow extends BaseStepWorkflow {
 
     private ResourceModel model;
-    private CallbackContext callbackContext;
+    private StepContext stepContext;
     private AmazonWebServicesClientProxy proxy;
     private ApplicationInsightsClient applicationInsightsClient;
     private Logger logger;
-    private ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent;
 
     public AppCreationStepWorkflow(
             final ResourceModel model,
-            final CallbackContext callbackContext,
+            final StepContext stepContext,
             final AmazonWebServicesClientProxy proxy,
             final ApplicationInsightsClient applicationInsightsClient,
-            final Logger logger,
-            final ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent) {
-        super(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+            final Logger logger) {
+        super(Step.APP_CREATION, model, stepContext, proxy, applicationInsightsClient, logger);
     }
 
     @Override
@@ -51,6 +50,14 @@ public class AppCreationStepWorkflow extends BaseStepWorkflow {
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) {
-        HandlerHelper.createApplicationInsightsApplication(model, proxy, applicationInsightsClient);
+        try {
+            HandlerHelper.createApplicationInsightsApplication(model, proxy, applicationInsightsClient);
+        } catch (ResourceInUseException e) {
+            // the earlier attempt which failed transiently has created the application after all
+            if (!isStartRetried(resourceGroupName)) {
+                throw e;
+            }
+            logger.log(String.format("Application %s was created by an earlier attempt: %s", resourceGroupName, e.getMessage()));
+        }
     }
 }
@@ -0,0 +1,56 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import software.amazon.applicationinsights.application.HandlerHelper;
+import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+
+public class AppDeletionStepWorkflow extends BaseStepWorkflow {
+
+    private ResourceModel model;
+    private StepContext stepContext;
+    private AmazonWebServicesClientProxy proxy;
+    private ApplicationInsightsClient applicationInsightsClient;
+    private Logger logger;
+
+    public AppDeletionStepWorkflow(
+            final ResourceModel model,
+            final StepContext stepContext,
+            final AmazonWebServicesClientProxy proxy,
+            final ApplicationInsightsClient applicationInsightsClient,
+            final Logger logger) {
+        super(Step.APP_DELETION, model, stepContext, proxy, applicationInsightsClient, logger);
+    }
+
+    @Override
+    protected boolean isCurrentItemProcessFinished(
+            String resourceGroupName,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        return !HandlerHelper.doesApplicationExist(resourceGroupName, proxy, applicationInsightsClient);
+    }
+
+    @Override
+    protected void startProcessNextItem(
+            String resourceGroupName,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        try {
+            HandlerHelper.deleteApplicationInsightsApplication(model, proxy, applicationInsightsClient);
+        } catch (ResourceNotFoundException e) {
+            // the earlier attempt which failed transiently has deleted the application after all
+            if (!isStartRetried(resourceGroupName)) {
+                throw e;
+            }
+            logger.log(String.format("Application %s was deleted by an earlier attempt: %s", resourceGroupName, e.getMessage()));
+        }
+    }
+}
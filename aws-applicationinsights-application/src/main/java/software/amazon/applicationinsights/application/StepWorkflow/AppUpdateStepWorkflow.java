@@ -1,33 +1,31 @@
 package software.amazon.applicationinsights.application.StepWorkflow;
 
-import software.amazon.applicationinsights.application.CallbackContext;
 import software.amazon.applicationinsights.application.HandlerHelper;
 import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
-import software.amazon.cloudformation.proxy.ProgressEvent;
 
 import java.io.IOException;
 
 public class AppUpdateStepWorkflow extends BaseStepWorkflow {
 
     private ResourceModel model;
-    private CallbackContext callbackContext;
+    private StepContext stepContext;
     private AmazonWebServicesClientProxy proxy;
     private ApplicationInsightsClient applicationInsightsClient;
     private Logger logger;
-    private ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent;
 
     public AppUpdateStepWorkflow(
             final ResourceModel model,
-            final CallbackContext callbackContext,
+            final StepContext stepContext,
             final AmazonWebServicesClientProxy proxy,
             final ApplicationInsightsClient applicationInsightsClient,
-            final Logger logger,
-            final ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent) {
-        super(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+            final Logger logger) {
+        super(Step.APP_UPDATE, model, stepContext, proxy, applicationInsightsClient, logger);
     }
 
     @Override
@@ -0,0 +1,157 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import software.amazon.applicationinsights.application.ExecutionBudget;
+import software.amazon.applicationinsights.application.HandlerHelper;
+import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ResourceInUseException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static software.amazon.applicationinsights.application.Constants.CONFIGURATION_FINISHED_LIFECYCLE;
+
+/**
+ * Submits component configurations back to back instead of waiting for the application to become ACTIVE
+ * after each of them. When the service rejects a submit because the application is still being configured,
+ * the remaining components stay unprocessed and are submitted again after the step backs off, the same way
+ * as after a transient failure. All submitted components share one lifecycle wait: they are finished once
+ * the application is ACTIVE again and their own configuration is enabled. A check right after the submits
+ * may still see the application ACTIVE from before them, so submitted components are only finished once the
+ * application has been seen being configured or the step has waited for a callback since they were submitted.
+ */
+public abstract class BaseComponentConfigurationStepWorkflow extends BaseStepWorkflow {
+
+    private final StepContext stepContext;
+    private final Set<String> unsettledComponentNames = new HashSet<>();
+
+    public BaseComponentConfigurationStepWorkflow(
+            final Step step,
+            final ResourceModel model,
+            final StepContext stepContext,
+            final AmazonWebServicesClientProxy proxy,
+            final ApplicationInsightsClient applicationInsightsClient,
+            final Logger logger) {
+        super(step, model, stepContext, proxy, applicationInsightsClient, logger);
+        this.stepContext = stepContext;
+    }
+
+    @Override
+    public ProgressEvent<ResourceModel, StepContext> execute(final ExecutionBudget executionBudget, final boolean callbackRound) {
+        // the components submitted before the last callback have had the service pick them up
+        if (!callbackRound) {
+            unsettledComponentNames.addAll(Optional.ofNullable(stepContext.getUnsettledItems()).orElse(Collections.emptyList()));
+        }
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = super.execute(executionBudget, callbackRound);
+        if (!progressEvent.isInProgress()) {
+            return progressEvent;
+        }
+
+        StepContext nextStepContext = progressEvent.getCallbackContext();
+        List<String> unsettledItems = Optional.ofNullable(nextStepContext.getProcessingItems()).orElse(Collections.emptyList()).stream()
+                .filter(unsettledComponentNames::contains)
+                .collect(Collectors.toList());
+        return ProgressEvent.defaultInProgressHandler(
+                nextStepContext.toBuilder().unsettledItems(unsettledItems.isEmpty() ? null : unsettledItems).build(),
+                progressEvent.getCallbackDelaySeconds(),
+                progressEvent.getResourceModel());
+    }
+
+    // components with the most resources take longest to configure
+    @Override
+    protected ItemOrderingStrategy getItemOrderingStrategy(ResourceModel model) {
+        return ItemOrderingStrategy.longestFirst(Comparator.comparingInt(
+                componentName -> HandlerHelper.getModelComponentResourceCount(componentName, model)));
+    }
+
+    @Override
+    protected boolean isCurrentItemProcessFinished(
+            String componentName,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        return !getFinishedItems(Collections.singletonList(componentName), model, proxy, applicationInsightsClient, logger).isEmpty();
+    }
+
+    @Override
+    protected List<String> getFinishedItems(
+            List<String> componentNames,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        if (!isApplicationConfigured(model, proxy, applicationInsightsClient)) {
+            // the service has picked up the submitted components
+            unsettledComponentNames.removeAll(componentNames);
+            return Collections.emptyList();
+        }
+
+        List<String> finishedComponentNames = new ArrayList<>();
+        for (String componentName : componentNames) {
+            if (isExecutionBudgetExhausted()) {
+                break;
+            }
+            if (unsettledComponentNames.contains(componentName)) {
+                logger.log(String.format("Configuration of component %s was submitted since the last callback, " +
+                        "checking it again later", componentName));
+                continue;
+            }
+            if (HandlerHelper.isComponentConfigurationEnabled(componentName, model, proxy, applicationInsightsClient)) {
+                finishedComponentNames.add(componentName);
+            }
+        }
+
+        return finishedComponentNames;
+    }
+
+    @Override
+    protected List<String> startProcessNextItems(
+            List<String> componentNames,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) throws IOException {
+        List<String> startedComponentNames = new ArrayList<>();
+        for (String componentName : componentNames) {
+            if (!startedComponentNames.isEmpty() && isExecutionBudgetExhausted()) {
+                break;
+            }
+            try {
+                startProcessNextItem(componentName, model, proxy, applicationInsightsClient, logger);
+            } catch (ResourceInUseException e) {
+                logger.log(String.format("Configuration of component %s is rejected as application is in use, " +
+                        "will submit it again after backing off: %s", componentName, e.getMessage()));
+                deferRetry(componentName, e);
+                break;
+            }
+            startedComponentNames.add(componentName);
+            unsettledComponentNames.add(componentName);
+        }
+
+        return startedComponentNames;
+    }
+
+    private static boolean isApplicationConfigured(
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient) {
+        return HandlerHelper.describeApplicationInsightsApplication(model.getResourceGroupName(), proxy, applicationInsightsClient)
+                .applicationInfo()
+                .lifeCycle()
+                .equals(CONFIGURATION_FINISHED_LIFECYCLE);
+    }
+}
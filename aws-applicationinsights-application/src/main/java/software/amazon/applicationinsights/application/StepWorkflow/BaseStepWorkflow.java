@@ -1,104 +1,225 @@
 package software.amazon.applicationinsights.application.StepWorkflow;
 
-import software.amazon.applicationinsights.application.CallbackContext;
+import software.amazon.applicationinsights.application.AdaptivePollingScheduler;
 import software.amazon.applicationinsights.application.ExceptionMapper;
+import software.amazon.applicationinsights.application.ExecutionBudget;
+import software.amazon.applicationinsights.application.ExecutionBudgetExhaustedException;
+import software.amazon.applicationinsights.application.InvocationScopedApi;
 import software.amazon.applicationinsights.application.ResourceModel;
 import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
-import static software.amazon.applicationinsights.application.Constants.TRANSITION_CALLBACK_DELAY_SECONDS;
+import static software.amazon.applicationinsights.application.Constants.MAX_ITEM_RETRY_ATTEMPTS;
+import static software.amazon.applicationinsights.application.Constants.MAX_RETRY_CALLBACK_DELAY_SECONDS;
+import static software.amazon.applicationinsights.application.Constants.RETRY_CALLBACK_DELAY_SECONDS;
 
 public abstract class BaseStepWorkflow {
 
+    private Step step;
     private ResourceModel model;
-    private CallbackContext callbackContext;
+    private StepContext stepContext;
     private AmazonWebServicesClientProxy proxy;
     private ApplicationInsightsClient applicationInsightsClient;
     private Logger logger;
-    private ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent;
+    private ExecutionBudget executionBudget;
+    // item whose call failed transiently in current round, it is retried after backing off
+    private String retryItem;
+    private Exception retryException;
+    // in-flight items the default check did not get to in current round
+    private final Set<String> uncheckedItems = new HashSet<>();
 
     public BaseStepWorkflow(
+            final Step step,
             final ResourceModel model,
-            final CallbackContext callbackContext,
+            final StepContext stepContext,
             final AmazonWebServicesClientProxy proxy,
             final ApplicationInsightsClient applicationInsightsClient,
-            final Logger logger,
-            final ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent) {
+            final Logger logger) {
+        this.step = step;
         this.model = model;
-        this.callbackContext = callbackContext;
+        this.stepContext = stepContext;
         this.proxy = proxy;
         this.applicationInsightsClient = applicationInsightsClient;
         this.logger = logger;
-        this.nextStepInitProgressEvent = nextStepInitProgressEvent;
     }
 
-    public ProgressEvent<ResourceModel, CallbackContext> execute() {
-        Step currentStep = Step.fromStepName(callbackContext.getCurrentStep());
-        String processingItem = callbackContext.getProcessingItem();
-        if (processingItem == null) {
-            // pick next item to process
-            String nextItemToProcess = pickNextItemToProcess(callbackContext);
-            if (nextItemToProcess == null) {
-                // current step finishes, start next step
-                return nextStepInitProgressEvent;
-            } else {
-
-                try {
-                    startProcessNextItem(nextItemToProcess, model, proxy, applicationInsightsClient, logger);
-                } catch (Exception ex) {
-                    logger.log(String.format("startProcessNextItem failed with exception %s", ex.getMessage()));
+    /**
+     * Executes one round of the step: checks every in-flight item, retires the finished ones
+     * and starts next items until the in-flight window of the step is full.
+     * Returns SUCCESS when the step has no item left, otherwise IN_PROGRESS with the updated step context.
+     * Throttling and other transient failures do not fail the step, the item is retried after backing off
+     * until it runs out of retry attempts.
+     * Items which can not be checked or started before the execution budget of the invocation runs out
+     * are left for the next round.
+     */
+    public ProgressEvent<ResourceModel, StepContext> execute(final ExecutionBudget executionBudget) {
+        return execute(executionBudget, true);
+    }
+
+    /**
+     * Executes one round of the step. Only the first round of the step in an invocation is a callback round,
+     * the rounds polled within the same invocation do not count towards the poll attempts of the step.
+     */
+    public ProgressEvent<ResourceModel, StepContext> execute(final ExecutionBudget executionBudget, final boolean callbackRound) {
+        this.executionBudget = executionBudget;
+
+        // the step backs off after a transient failure even when another step calls back earlier
+        Long retryAfterMillis = stepContext.getRetryAfterMillis();
+        if (retryAfterMillis != null && retryAfterMillis > System.currentTimeMillis()) {
+            return ProgressEvent.defaultInProgressHandler(
+                    stepContext,
+                    (int) Math.ceil((retryAfterMillis - System.currentTimeMillis()) / 1000.0),
+                    model);
+        }
+
+        List<String> unProcessedItems = copyOf(stepContext.getUnprocessedItems());
+        List<String> processingItems = copyOf(stepContext.getProcessingItems());
+        Map<String, Integer> itemRetryAttempts = stepContext.getItemRetryAttempts() == null ?
+                new HashMap<>() : new HashMap<>(stepContext.getItemRetryAttempts());
+        boolean anyItemRetiredOrStarted = false;
+
+        // check every in-flight item and retire the ones which have finished,
+        // an item whose check failed transiently stays in flight and is checked again later
+        if (!processingItems.isEmpty()) {
+            List<String> finishedItems;
+            try {
+                // verification reads the current state, listings kept across invocations may be stale
+                finishedItems = InvocationScopedApi.readFresh(() ->
+                        getFinishedItems(new ArrayList<>(processingItems), model, proxy, applicationInsightsClient, logger));
+                // a successful check ends the run of consecutive transient failures of the item
+                processingItems.stream()
+                        .filter(processingItem -> !processingItem.equals(retryItem) && !uncheckedItems.contains(processingItem))
+                        .forEach(itemRetryAttempts::remove);
+            } catch (Exception ex) {
+                logger.log(String.format("isCurrentItemProcessFinished failed with exception %s", ex.getMessage()));
+                if (!ExceptionMapper.isRetryable(ex)) {
                     return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
                 }
+                deferRetry(processingItems.get(0), ex);
+                finishedItems = new ArrayList<>();
+            }
 
-                List<String> unProcessedItems = callbackContext.getUnprocessedItems();
-                unProcessedItems.remove(nextItemToProcess);
-                return ProgressEvent.defaultInProgressHandler(
-                        CallbackContext.builder()
-                                .currentStep(currentStep.name())
-                                .stabilizationRetriesRemaining(callbackContext.getStabilizationRetriesRemaining())
-                                .processingItem(nextItemToProcess)
-                                .unprocessedItems(unProcessedItems)
-                                .build(),
-                        currentStep.getCallBackWaitSeconds(),
-                        model);
+            for (String finishedItem : finishedItems) {
+                logger.log(String.format("Step %s finished processing item %s", step.name(), finishedItem));
+                processingItems.remove(finishedItem);
+                itemRetryAttempts.remove(finishedItem);
+                anyItemRetiredOrStarted = true;
             }
-        } else {
-            boolean currentItemProcessFinished;
+        }
+
+        // start processing next items until the in-flight window of the step is full
+        List<String> nextItemsToProcess = pickNextItemsToProcess(
+                unProcessedItems, step.getMaxConcurrentItems() - processingItems.size());
+        // an item whose start failed transiently stays unprocessed and is started again later,
+        // no item is started in a round which is already being throttled
+        if (!nextItemsToProcess.isEmpty() && retryItem == null) {
+            List<String> startedItems;
             try {
-                currentItemProcessFinished = isCurrentItemProcessFinished(processingItem, model, proxy, applicationInsightsClient, logger);
+                startedItems = startProcessNextItems(nextItemsToProcess, model, proxy, applicationInsightsClient, logger);
             } catch (Exception ex) {
-                logger.log(String.format("isCurrentItemProcessFinished failed with exception %s", ex.getMessage()));
-                return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
+                logger.log(String.format("startProcessNextItem failed with exception %s", ex.getMessage()));
+                if (!ExceptionMapper.isRetryable(ex)) {
+                    return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
+                }
+                deferRetry(nextItemsToProcess.get(0), ex);
+                startedItems = new ArrayList<>();
             }
 
-            if (currentItemProcessFinished) {
-                return ProgressEvent.defaultInProgressHandler(
-                        CallbackContext.builder()
-                                .currentStep(currentStep.name())
-                                .stabilizationRetriesRemaining(callbackContext.getStabilizationRetriesRemaining())
-                                .processingItem(null)
-                                .unprocessedItems(callbackContext.getUnprocessedItems())
-                                .build(),
-                        TRANSITION_CALLBACK_DELAY_SECONDS,
-                        model);
-            } else {
-                return ProgressEvent.defaultInProgressHandler(
-                        CallbackContext.builder()
-                                .currentStep(currentStep.name())
-                                .stabilizationRetriesRemaining(callbackContext.getStabilizationRetriesRemaining() - 1)
-                                .processingItem(processingItem)
-                                .unprocessedItems(callbackContext.getUnprocessedItems())
-                                .build(),
-                        currentStep.getCallBackWaitSeconds(),
-                        model);
+            unProcessedItems.removeAll(startedItems);
+            processingItems.addAll(startedItems);
+            startedItems.forEach(itemRetryAttempts::remove);
+            anyItemRetiredOrStarted = anyItemRetiredOrStarted || !startedItems.isEmpty();
+        }
+
+        if (processingItems.isEmpty() && unProcessedItems.isEmpty()) {
+            return ProgressEvent.defaultSuccessHandler(model);
+        }
+
+        int retryDelaySeconds = 0;
+        Long nextRetryAfterMillis = null;
+        if (retryItem != null) {
+            int retryAttempts = itemRetryAttempts.getOrDefault(retryItem, 0) + 1;
+            if (retryAttempts > MAX_ITEM_RETRY_ATTEMPTS) {
+                logger.log(String.format("Step %s gives up on item %s after %d transient failures",
+                        step.name(), retryItem, MAX_ITEM_RETRY_ATTEMPTS));
+                return ProgressEvent.defaultFailureHandler(retryException, ExceptionMapper.mapToHandlerErrorCode(retryException));
             }
+            itemRetryAttempts.put(retryItem, retryAttempts);
+            retryDelaySeconds = AdaptivePollingScheduler.nextCallbackDelaySeconds(
+                    RETRY_CALLBACK_DELAY_SECONDS, MAX_RETRY_CALLBACK_DELAY_SECONDS, retryAttempts - 1);
+            nextRetryAfterMillis = System.currentTimeMillis() + retryDelaySeconds * 1000L;
+            logger.log(String.format("Step %s retries item %s in %d seconds, attempt %d of %d",
+                    step.name(), retryItem, retryDelaySeconds, retryAttempts, MAX_ITEM_RETRY_ATTEMPTS));
+        }
+
+        // poll again soon after progress is made, otherwise back off once per callback
+        int pollAttempts = Optional.ofNullable(stepContext.getPollAttempts()).orElse(0);
+        if (anyItemRetiredOrStarted) {
+            pollAttempts = 0;
+        } else if (callbackRound) {
+            pollAttempts++;
+        }
+
+        // every step has its own deadline and retry budget, so a stuck step fails on its own
+        // instead of using up the stabilization retries of the whole handler
+        long startedAtMillis = Optional.ofNullable(stepContext.getStartedAtMillis()).orElse(System.currentTimeMillis());
+        if (System.currentTimeMillis() - startedAtMillis > step.getTimeoutSeconds() * 1000L) {
+            return stepNotStabilized(String.format("did not finish within %d seconds", step.getTimeoutSeconds()),
+                    processingItems, unProcessedItems);
+        }
+        if (pollAttempts > step.getMaxPollAttempts()) {
+            return stepNotStabilized(String.format("made no progress in %d consecutive callbacks", step.getMaxPollAttempts()),
+                    processingItems, unProcessedItems);
         }
+
+        return ProgressEvent.defaultInProgressHandler(
+                stepContext.toBuilder()
+                        .processingItems(processingItems)
+                        .unprocessedItems(unProcessedItems)
+                        .pollAttempts(pollAttempts)
+                        .startedAtMillis(startedAtMillis)
+                        .itemRetryAttempts(itemRetryAttempts.isEmpty() ? null : itemRetryAttempts)
+                        .retryAfterMillis(nextRetryAfterMillis)
+                        .build(),
+                Math.max(AdaptivePollingScheduler.nextCallbackDelaySeconds(step, pollAttempts), retryDelaySeconds),
+                model);
+    }
+
+    /**
+     * Retries the item after backing off instead of failing the step, the retry uses up one of the retry attempts
+     * of the item.
+     */
+    protected void deferRetry(String item, Exception ex) {
+        // a call left for the next invocation has not failed, it does not use up a retry attempt of the item
+        if (ex instanceof ExecutionBudgetExhaustedException) {
+            return;
+        }
+        retryItem = item;
+        retryException = ex;
+    }
+
+    private ProgressEvent<ResourceModel, StepContext> stepNotStabilized(
+            String reason,
+            List<String> processingItems,
+            List<String> unProcessedItems) {
+        String message = String.format("Step %s %s, items in progress: %s, items not started: %s",
+                step.name(), reason, processingItems, unProcessedItems);
+        logger.log(message);
+        return ProgressEvent.failed(model, stepContext, HandlerErrorCode.NotStabilized, message);
     }
 
     protected abstract boolean isCurrentItemProcessFinished(
@@ -115,12 +236,103 @@ public abstract class BaseStepWorkflow {
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) throws IOException;
 
-    private String pickNextItemToProcess(CallbackContext callbackContext) {
-        List<String> unProcessedItems = callbackContext.getUnprocessedItems();
-        if (unProcessedItems == null || unProcessedItems.isEmpty()) {
-            return null;
+    /**
+     * Returns the in-flight items which have finished. Checks the items one by one by default,
+     * steps which can check all of them with one call override this.
+     */
+    protected List<String> getFinishedItems(
+            List<String> processingItems,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        List<String> finishedItems = new ArrayList<>();
+        for (int i = 0; i < processingItems.size(); i++) {
+            String processingItem = processingItems.get(i);
+            if (isExecutionBudgetExhausted()) {
+                uncheckedItems.addAll(processingItems.subList(i, processingItems.size()));
+                break;
+            }
+            try {
+                if (isCurrentItemProcessFinished(processingItem, model, proxy, applicationInsightsClient, logger)) {
+                    finishedItems.add(processingItem);
+                }
+            } catch (RuntimeException ex) {
+                if (!ExceptionMapper.isRetryable(ex)) {
+                    throw ex;
+                }
+                logger.log(String.format("Checking item %s failed transiently: %s", processingItem, ex.getMessage()));
+                deferRetry(processingItem, ex);
+                uncheckedItems.addAll(processingItems.subList(i, processingItems.size()));
+                break;
+            }
+        }
+
+        return finishedItems;
+    }
+
+    /**
+     * Starts processing the next items and returns the ones which were started, the others stay unprocessed
+     * and are started in a later round. Starts the items one by one by default,
+     * steps which can start all of them with one call override this.
+     */
+    protected List<String> startProcessNextItems(
+            List<String> nextItemsToProcess,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) throws IOException {
+        List<String> startedItems = new ArrayList<>();
+        for (String nextItemToProcess : nextItemsToProcess) {
+            if (!startedItems.isEmpty() && isExecutionBudgetExhausted()) {
+                break;
+            }
+            try {
+                startProcessNextItem(nextItemToProcess, model, proxy, applicationInsightsClient, logger);
+            } catch (RuntimeException ex) {
+                if (!ExceptionMapper.isRetryable(ex)) {
+                    throw ex;
+                }
+                logger.log(String.format("Starting item %s failed transiently: %s", nextItemToProcess, ex.getMessage()));
+                deferRetry(nextItemToProcess, ex);
+                break;
+            }
+            startedItems.add(nextItemToProcess);
         }
 
-        return unProcessedItems.get(0);
+        return startedItems;
+    }
+
+    /**
+     * Whether an earlier start of the item failed transiently. The failed call may still have been applied on
+     * the service side, so steps whose start is not idempotent take a conflict on the retried start as started.
+     */
+    protected boolean isStartRetried(String item) {
+        return stepContext.getItemRetryAttempts() != null && stepContext.getItemRetryAttempts().containsKey(item);
+    }
+
+    protected boolean isExecutionBudgetExhausted() {
+        return executionBudget.isExhausted();
+    }
+
+    /**
+     * Order in which unprocessed items are started. Items are started as listed by default,
+     * steps whose items take noticeably different times override this.
+     */
+    protected ItemOrderingStrategy getItemOrderingStrategy(ResourceModel model) {
+        return ItemOrderingStrategy.AS_LISTED;
+    }
+
+    private List<String> pickNextItemsToProcess(List<String> unProcessedItems, int maxItems) {
+        if (unProcessedItems.isEmpty() || maxItems <= 0) {
+            return new ArrayList<>();
+        }
+
+        List<String> orderedItems = getItemOrderingStrategy(model).order(unProcessedItems);
+        return new ArrayList<>(orderedItems.subList(0, Math.min(maxItems, orderedItems.size())));
+    }
+
+    private static List<String> copyOf(List<String> items) {
+        return items == null ? new ArrayList<>() : new ArrayList<>(items);
     }
 }
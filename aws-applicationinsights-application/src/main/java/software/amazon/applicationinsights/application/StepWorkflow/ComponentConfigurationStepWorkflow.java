@@ -1,48 +1,48 @@
 package software.amazon.applicationinsights.application.StepWorkflow;
 
-import software.amazon.applicationinsights.application.CallbackContext;
 import software.amazon.applicationinsights.application.ComponentMonitoringSetting;
 import software.amazon.applicationinsights.application.HandlerHelper;
 import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
-import software.amazon.cloudformation.proxy.ProgressEvent;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
-import static software.amazon.applicationinsights.application.Constants.CONFIGURATION_FINISHED_LIFECYCLE;
-
-public class ComponentConfigurationStepWorkflow extends BaseStepWorkflow {
+public class ComponentConfigurationStepWorkflow extends BaseComponentConfigurationStepWorkflow {
 
     private ResourceModel model;
-    private CallbackContext callbackContext;
+    private StepContext stepContext;
     private AmazonWebServicesClientProxy proxy;
     private ApplicationInsightsClient applicationInsightsClient;
     private Logger logger;
-    private ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent;
+
+    // configuration modes from the quickest to apply to the slowest, DEFAULT and DEFAULT_WITH_OVERWRITE
+    // look up the recommended configuration first, DEFAULT_WITH_OVERWRITE also merges the overwrite into it
+    private static final List<String> CONFIGURATION_MODES_BY_EXPECTED_DURATION =
+            Arrays.asList("CUSTOM", "DEFAULT", "DEFAULT_WITH_OVERWRITE");
 
     public ComponentConfigurationStepWorkflow(
             final ResourceModel model,
-            final CallbackContext callbackContext,
+            final StepContext stepContext,
             final AmazonWebServicesClientProxy proxy,
             final ApplicationInsightsClient applicationInsightsClient,
-            final Logger logger,
-            final ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent) {
-        super(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+            final Logger logger) {
+        super(Step.COMPONENT_CONFIGURATION, model, stepContext, proxy, applicationInsightsClient, logger);
     }
 
+    // components with the most resources take longest to configure, the configuration mode breaks ties
     @Override
-    protected boolean isCurrentItemProcessFinished(
-            String componentName,
-            ResourceModel model,
-            AmazonWebServicesClientProxy proxy,
-            ApplicationInsightsClient applicationInsightsClient,
-            Logger logger) {
-        return HandlerHelper.describeApplicationInsightsApplication(model.getResourceGroupName(), proxy, applicationInsightsClient)
-                .applicationInfo()
-                .lifeCycle()
-                .equals(CONFIGURATION_FINISHED_LIFECYCLE);
+    protected ItemOrderingStrategy getItemOrderingStrategy(ResourceModel model) {
+        return ItemOrderingStrategy.longestFirst(Comparator
+                .<String>comparingInt(componentName -> HandlerHelper.getModelComponentResourceCount(componentName, model))
+                .thenComparingInt(componentName -> CONFIGURATION_MODES_BY_EXPECTED_DURATION.indexOf(
+                        getComponentMonitoringSetting(componentName, model).getComponentConfigurationMode())));
     }
 
     @Override
@@ -52,11 +52,15 @@ public class ComponentConfigurationStepWorkflow extends BaseStepWorkflow {
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) throws IOException {
-        ComponentMonitoringSetting componentMonitoringSetting = model.getComponentMonitoringSettings().stream()
+        ComponentMonitoringSetting componentMonitoringSetting = getComponentMonitoringSetting(componentName, model);
+
+        HandlerHelper.createComponentConfiguration(componentMonitoringSetting, model, proxy, applicationInsightsClient, logger);
+    }
+
+    private static ComponentMonitoringSetting getComponentMonitoringSetting(String componentName, ResourceModel model) {
+        return model.getComponentMonitoringSettings().stream()
                 .filter(setting -> (componentName.equals(setting.getComponentName()) || componentName.equals(setting.getComponentARN())))
                 .findFirst()
                 .get();
-
-        HandlerHelper.createComponentConfiguration(componentMonitoringSetting, model, proxy, applicationInsightsClient, logger);
     }
 }
@@ -1,31 +1,39 @@
 package software.amazon.applicationinsights.application.StepWorkflow;
 
-import software.amazon.applicationinsights.application.CallbackContext;
 import software.amazon.applicationinsights.application.CustomComponent;
 import software.amazon.applicationinsights.application.HandlerHelper;
 import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ResourceInUseException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
-import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.Comparator;
 
 public class ComponentCreationStepWorkflow extends BaseStepWorkflow {
 
     private ResourceModel model;
-    private CallbackContext callbackContext;
+    private StepContext stepContext;
     private AmazonWebServicesClientProxy proxy;
     private ApplicationInsightsClient applicationInsightsClient;
     private Logger logger;
-    private ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent;
 
     public ComponentCreationStepWorkflow(
             final ResourceModel model,
-            final CallbackContext callbackContext,
+            final StepContext stepContext,
             final AmazonWebServicesClientProxy proxy,
             final ApplicationInsightsClient applicationInsightsClient,
-            final Logger logger,
-            final ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent) {
-        super(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+            final Logger logger) {
+        super(Step.COMPONENT_CREATION, model, stepContext, proxy, applicationInsightsClient, logger);
+    }
+
+    // components with the most resources take longest to create
+    @Override
+    protected ItemOrderingStrategy getItemOrderingStrategy(ResourceModel model) {
+        return ItemOrderingStrategy.longestFirst(Comparator.comparingInt(
+                componentName -> HandlerHelper.getModelComponentResourceCount(componentName, model)));
     }
 
     @Override
@@ -50,6 +58,14 @@ public class ComponentCreationStepWorkflow extends BaseStepWorkflow {
                 .findFirst()
                 .get();
 
-        HandlerHelper.createCustomComponent(customComponent, model.getResourceGroupName(), proxy, applicationInsightsClient);
+        try {
+            HandlerHelper.createCustomComponent(customComponent, model.getResourceGroupName(), proxy, applicationInsightsClient);
+        } catch (ResourceInUseException e) {
+            // the earlier attempt which failed transiently has created the component after all
+            if (!isStartRetried(componentName)) {
+                throw e;
+            }
+            logger.log(String.format("Component %s was created by an earlier attempt: %s", componentName, e.getMessage()));
+        }
     }
 }
@@ -1,32 +1,31 @@
 package software.amazon.applicationinsights.application.StepWorkflow;
 
-import software.amazon.applicationinsights.application.CallbackContext;
 import software.amazon.applicationinsights.application.HandlerHelper;
 import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
-import software.amazon.cloudformation.proxy.ProgressEvent;
 
 import java.io.IOException;
 
 public class ComponentDeletionStepWorkflow extends BaseStepWorkflow {
 
     private ResourceModel model;
-    private CallbackContext callbackContext;
+    private StepContext stepContext;
     private AmazonWebServicesClientProxy proxy;
     private ApplicationInsightsClient applicationInsightsClient;
     private Logger logger;
-    private ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent;
 
     public ComponentDeletionStepWorkflow(
             final ResourceModel model,
-            final CallbackContext callbackContext,
+            final StepContext stepContext,
             final AmazonWebServicesClientProxy proxy,
             final ApplicationInsightsClient applicationInsightsClient,
-            final Logger logger,
-            final ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent) {
-        super(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+            final Logger logger) {
+        super(Step.COMPONENT_DELETION, model, stepContext, proxy, applicationInsightsClient, logger);
     }
 
     @Override
@@ -46,6 +45,14 @@ public class ComponentDeletionStepWorkflow extends BaseStepWorkflow {
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) throws IOException {
-        HandlerHelper.deleteCustomComponent(componentName, model.getResourceGroupName(), proxy, applicationInsightsClient);
+        try {
+            HandlerHelper.deleteCustomComponent(componentName, model.getResourceGroupName(), proxy, applicationInsightsClient);
+        } catch (ResourceNotFoundException e) {
+            // the earlier attempt which failed transiently has deleted the component after all
+            if (!isStartRetried(componentName)) {
+                throw e;
+            }
+            logger.log(String.format("Component %s was deleted by an earlier attempt: %s", componentName, e.getMessage()));
+        }
     }
 }
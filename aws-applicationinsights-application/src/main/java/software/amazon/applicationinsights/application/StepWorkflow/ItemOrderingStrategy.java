@@ -0,0 +1,28 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Order in which the unprocessed items of a step are started. Items are not kept in any particular order
+ * in CallbackContext, so the order is applied every time the next items of a step are picked.
+ */
+@FunctionalInterface
+public interface ItemOrderingStrategy {
+
+    ItemOrderingStrategy AS_LISTED = items -> new ArrayList<>(items);
+
+    List<String> order(List<String> items);
+
+    /**
+     * Starts the items expected to take longest first, so that no slow item is left to run by itself
+     * at the end of the step. Items expected to take as long keep their order.
+     */
+    static ItemOrderingStrategy longestFirst(final Comparator<String> expectedDuration) {
+        return items -> items.stream()
+                .sorted(expectedDuration.reversed())
+                .collect(Collectors.toList());
+    }
+}
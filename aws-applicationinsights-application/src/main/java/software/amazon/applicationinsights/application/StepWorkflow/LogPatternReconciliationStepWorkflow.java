@@ -0,0 +1,137 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import software.amazon.applicationinsights.application.HandlerHelper;
+import software.amazon.applicationinsights.application.LogPattern;
+import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Brings log patterns in line with the model. Each item is a log pattern identifier, it is created when the
+ * model has it and the application does not, updated when both have it and they differ, and deleted when only
+ * the application has it. Which call to make, and whether the items have finished, is decided from one
+ * ListLogPatterns listing of the application for all items.
+ */
+public class LogPatternReconciliationStepWorkflow extends BaseStepWorkflow {
+
+    private ResourceModel model;
+    private StepContext stepContext;
+    private AmazonWebServicesClientProxy proxy;
+    private ApplicationInsightsClient applicationInsightsClient;
+    private Logger logger;
+
+    public LogPatternReconciliationStepWorkflow(
+            final ResourceModel model,
+            final StepContext stepContext,
+            final AmazonWebServicesClientProxy proxy,
+            final ApplicationInsightsClient applicationInsightsClient,
+            final Logger logger) {
+        super(Step.LOG_PATTERN_RECONCILIATION, model, stepContext, proxy, applicationInsightsClient, logger);
+    }
+
+    @Override
+    protected boolean isCurrentItemProcessFinished(
+            String logPatternIdentifier,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        return !getFinishedItems(Collections.singletonList(logPatternIdentifier), model, proxy, applicationInsightsClient, logger).isEmpty();
+    }
+
+    @Override
+    protected void startProcessNextItem(
+            String logPatternIdentifier,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        startProcessNextItems(Collections.singletonList(logPatternIdentifier), model, proxy, applicationInsightsClient, logger);
+    }
+
+    @Override
+    protected List<String> getFinishedItems(
+            List<String> logPatternIdentifiers,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        Map<String, software.amazon.awssdk.services.applicationinsights.model.LogPattern> appLogPatterns =
+                getAppLogPatterns(model, proxy, applicationInsightsClient);
+
+        return logPatternIdentifiers.stream()
+                .filter(logPatternIdentifier -> {
+                    LogPattern modelLogPattern = pickLogPatternFromModel(logPatternIdentifier, model);
+                    software.amazon.awssdk.services.applicationinsights.model.LogPattern appLogPattern =
+                            appLogPatterns.get(logPatternIdentifier);
+                    if (modelLogPattern == null) {
+                        return appLogPattern == null;
+                    }
+                    return appLogPattern != null && HandlerHelper.isLogPatternSyncedWithModel(modelLogPattern, appLogPattern);
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    protected List<String> startProcessNextItems(
+            List<String> logPatternIdentifiers,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        Map<String, software.amazon.awssdk.services.applicationinsights.model.LogPattern> appLogPatterns =
+                getAppLogPatterns(model, proxy, applicationInsightsClient);
+
+        for (String logPatternIdentifier : logPatternIdentifiers) {
+            String patternSetName = logPatternIdentifier.split(":")[0];
+            LogPattern modelLogPattern = pickLogPatternFromModel(logPatternIdentifier, model);
+            software.amazon.awssdk.services.applicationinsights.model.LogPattern appLogPattern =
+                    appLogPatterns.get(logPatternIdentifier);
+
+            if (modelLogPattern == null) {
+                if (appLogPattern != null) {
+                    logger.log(String.format("Deleting log pattern %s", logPatternIdentifier));
+                    HandlerHelper.deleteLogPattern(
+                            patternSetName, logPatternIdentifier.split(":")[1], model, proxy, applicationInsightsClient);
+                }
+            } else if (appLogPattern == null) {
+                logger.log(String.format("Creating log pattern %s", logPatternIdentifier));
+                HandlerHelper.createLogPattern(
+                        patternSetName, modelLogPattern, model.getResourceGroupName(), proxy, applicationInsightsClient);
+            } else if (!HandlerHelper.isLogPatternSyncedWithModel(modelLogPattern, appLogPattern)) {
+                logger.log(String.format("Updating log pattern %s", logPatternIdentifier));
+                HandlerHelper.updateLogPattern(
+                        patternSetName, modelLogPattern, model, proxy, applicationInsightsClient);
+            }
+        }
+
+        return logPatternIdentifiers;
+    }
+
+    private static Map<String, software.amazon.awssdk.services.applicationinsights.model.LogPattern> getAppLogPatterns(
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient) {
+        return HandlerHelper.streamAppLogPatterns(model.getResourceGroupName(), proxy, applicationInsightsClient)
+                .collect(Collectors.toMap(
+                        logPattern -> HandlerHelper.generateLogPatternIdentifier(logPattern.patternSetName(), logPattern.patternName()),
+                        Function.identity(),
+                        (first, second) -> first));
+    }
+
+    private static LogPattern pickLogPatternFromModel(String logPatternIdentifier, ResourceModel model) {
+        return HandlerHelper.pickLogPatternFromModel(
+                logPatternIdentifier.split(":")[0],
+                logPatternIdentifier.split(":")[1],
+                model);
+    }
+}
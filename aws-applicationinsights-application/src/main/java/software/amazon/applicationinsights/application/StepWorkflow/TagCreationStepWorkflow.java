@@ -1,32 +1,32 @@
 package software.amazon.applicationinsights.application.StepWorkflow;
 
-import software.amazon.applicationinsights.application.CallbackContext;
 import software.amazon.applicationinsights.application.HandlerHelper;
 import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
-import software.amazon.cloudformation.proxy.ProgressEvent;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 public class TagCreationStepWorkflow extends BaseStepWorkflow {
 
     private ResourceModel model;
-    private CallbackContext callbackContext;
+    private StepContext stepContext;
     private AmazonWebServicesClientProxy proxy;
     private ApplicationInsightsClient applicationInsightsClient;
     private Logger logger;
-    private ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent;
 
     public TagCreationStepWorkflow(
             final ResourceModel model,
-            final CallbackContext callbackContext,
+            final StepContext stepContext,
             final AmazonWebServicesClientProxy proxy,
             final ApplicationInsightsClient applicationInsightsClient,
-            final Logger logger,
-            final ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent) {
-        super(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+            final Logger logger) {
+        super(Step.TAG_CREATION, model, stepContext, proxy, applicationInsightsClient, logger);
     }
 
     @Override
@@ -36,7 +36,7 @@ public class TagCreationStepWorkflow extends BaseStepWorkflow {
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) {
-        return HandlerHelper.tagCreatedForApplicaiton(tagKey, model, proxy, applicationInsightsClient);
+        return !getFinishedItems(Collections.singletonList(tagKey), model, proxy, applicationInsightsClient, logger).isEmpty();
     }
 
     @Override
@@ -46,6 +46,29 @@ public class TagCreationStepWorkflow extends BaseStepWorkflow {
             AmazonWebServicesClientProxy proxy,
             ApplicationInsightsClient applicationInsightsClient,
             Logger logger) throws IOException {
-        HandlerHelper.tagApplication(tagKey, model, proxy, applicationInsightsClient, logger);
+        startProcessNextItems(Collections.singletonList(tagKey), model, proxy, applicationInsightsClient, logger);
+    }
+
+    // all in-flight tag keys are checked with one ListTagsForResource call
+    @Override
+    protected List<String> getFinishedItems(
+            List<String> tagKeys,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) {
+        return HandlerHelper.getCreatedTagKeys(tagKeys, model, proxy, applicationInsightsClient);
+    }
+
+    // all next tag keys are added with one call
+    @Override
+    protected List<String> startProcessNextItems(
+            List<String> tagKeys,
+            ResourceModel model,
+            AmazonWebServicesClientProxy proxy,
+            ApplicationInsightsClient applicationInsightsClient,
+            Logger logger) throws IOException {
+        HandlerHelper.tagApplication(tagKeys, model, proxy, applicationInsightsClient, logger);
+        return tagKeys;
     }
 }
@@ -0,0 +1,101 @@
+package software.amazon.applicationinsights.application;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Paces the calls of one kind of operation on the client side. The bucket holds up to burst tokens and is
+ * refilled at the given rate, every call takes one token. A call which finds the bucket empty reserves the next
+ * token and is told how long to wait for it, so callers waiting together are spaced out at the refill rate
+ * instead of hitting the service at the same time. A bucket with a rate of zero never makes a call wait.
+ * The number of calls which had to wait and the total time they waited are kept as metrics.
+ */
+public class TokenBucket {
+
+    private final double tokensPerMillis;
+    private final double burst;
+    private final LongSupplier clock;
+    private final AtomicLong delayedCalls = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private double tokens;
+    private long lastRefillMillis;
+
+    public TokenBucket(final double callsPerSecond, final int burst) {
+        this(callsPerSecond, burst, System::currentTimeMillis);
+    }
+
+    TokenBucket(final double callsPerSecond, final int burst, final LongSupplier clock) {
+        this.tokensPerMillis = callsPerSecond / 1000;
+        this.burst = Math.max(1, burst);
+        this.clock = clock;
+        this.tokens = this.burst;
+        this.lastRefillMillis = clock.getAsLong();
+    }
+
+    public boolean isEnabled() {
+        return tokensPerMillis > 0;
+    }
+
+    /**
+     * Takes a token and returns the milliseconds the caller has to wait before making its call.
+     */
+    public long reserve() {
+        return reserve(Long.MAX_VALUE);
+    }
+
+    /**
+     * Takes a token and returns the milliseconds the caller has to wait before making its call,
+     * or returns -1 without taking the token when the caller would have to wait longer than the max wait.
+     */
+    public long reserve(final long maxWaitMillis) {
+        if (!isEnabled()) {
+            return 0;
+        }
+
+        long waitMillis;
+        synchronized (this) {
+            long nowMillis = clock.getAsLong();
+            tokens = Math.min(burst, tokens + (nowMillis - lastRefillMillis) * tokensPerMillis);
+            lastRefillMillis = nowMillis;
+            // tokens go negative while calls are queued for the tokens still to come
+            waitMillis = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerMillis);
+            if (waitMillis > maxWaitMillis) {
+                return -1;
+            }
+            tokens -= 1;
+        }
+
+        if (waitMillis > 0) {
+            delayedCalls.incrementAndGet();
+            totalWaitMillis.addAndGet(waitMillis);
+        }
+        return waitMillis;
+    }
+
+    /**
+     * Takes a token, waiting for it when the bucket is empty. Returns false without waiting or taking the token
+     * when it would not be available within the max wait.
+     */
+    public boolean acquire(final long maxWaitMillis) {
+        long waitMillis = reserve(maxWaitMillis);
+        if (waitMillis < 0) {
+            return false;
+        }
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return true;
+    }
+
+    public long getDelayedCalls() {
+        return delayedCalls.get();
+    }
+
+    public long getTotalWaitMillis() {
+        return totalWaitMillis.get();
+    }
+}
@@ -6,9 +6,7 @@ import software.amazon.applicationinsights.application.StepWorkflow.ComponentCre
 import software.amazon.applicationinsights.application.StepWorkflow.ComponentDeletionStepWorkflow;
 import software.amazon.applicationinsights.application.StepWorkflow.DefaultComponentConfigurationStepWorkflow;
 import software.amazon.applicationinsights.application.StepWorkflow.DisableComponentConfigurationStepWorkflow;
-import software.amazon.applicationinsights.application.StepWorkflow.LogPatternCreationStepWorkflow;
-import software.amazon.applicationinsights.application.StepWorkflow.LogPatternDeletionStepWorkflow;
-import software.amazon.applicationinsights.application.StepWorkflow.LogPatternUpdateStepWorkflow;
+import software.amazon.applicationinsights.application.StepWorkflow.LogPatternReconciliationStepWorkflow;
 import software.amazon.applicationinsights.application.StepWorkflow.TagCreationStepWorkflow;
 import software.amazon.applicationinsights.application.StepWorkflow.TagDeletionStepWorkflow;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
@@ -21,11 +19,11 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static software.amazon.applicationinsights.application.Constants.ACCOUNT_BASED_GROUPING_TYPE;
 import static software.amazon.applicationinsights.application.Constants.SHADOW_RG_PREFIX_ACCOUNT_BASED;
-import static software.amazon.applicationinsights.application.Constants.TRANSITION_CALLBACK_DELAY_SECONDS;
 
 public class UpdateHandler extends BaseHandler<CallbackContext> {
 
@@ -40,7 +38,12 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                                                                        final CallbackContext callbackContext,
                                                                        final Logger logger) {
 
+        // the budget starts with the invocation, so the checks and planning below count against it
+        final ExecutionBudget executionBudget = ExecutionBudget.forInvocation();
+        InvocationScopedApi.bindExecutionBudget(proxy, executionBudget);
         final ResourceModel model = request.getDesiredResourceState();
+        // consecutive callbacks of the stack may reuse the listings of state this container just wrote
+        InvocationScopedApi.bindInvocationScope(proxy, request.getAwsAccountId(), request.getRegion());
 
         logger.log(String.format("Update Handler called with resourceGroupName %s", model.getResourceGroupName()));
         logger.log("Resource Model: " + model);
@@ -48,7 +51,7 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
         final ResourceModel previousModel = request.getPreviousResourceState();
         logger.log("Previous Resource Model: " + previousModel);
 
-        final CallbackContext newCallbackContext = callbackContext == null ?
+        CallbackContext newCallbackContext = callbackContext == null ?
                 CallbackContext.builder().stabilizationRetriesRemaining(UPDATE_STATUS_POLL_RETRIES).build() :
                 callbackContext;
 
@@ -78,217 +81,90 @@ public class UpdateHandler extends BaseHandler<CallbackContext> {
                 request.getAwsAccountId(),
                 model.getResourceGroupName()));
 
-        String currentStep = newCallbackContext.getCurrentStep();
-
         if (newCallbackContext.getStabilizationRetriesRemaining() == 0) {
             throw new RuntimeException(UPDATE_TIMED_OUT_MESSAGE);
         }
 
-        if (currentStep == null) {
-            if (!HandlerHelper.doesApplicationExist(model.getResourceGroupName(), proxy, applicationInsightsClient)) {
-                // if the application does not exit, fail the update
+        // if the application does not exit, fail the update
+        // the check is made on the first invocation, and again on callbacks while it fails transiently
+        if (callbackContext == null || newCallbackContext.getExistenceCheckAttempts() != null) {
+            final boolean applicationExists;
+            try {
+                applicationExists = HandlerHelper.doesApplicationExist(model.getResourceGroupName(), proxy, applicationInsightsClient);
+            } catch (Exception ex) {
+                logger.log(String.format("doesApplicationExist failed with exception %s", ex.getMessage()));
+                return ExceptionMapper.toProgressEvent(ex, model, newCallbackContext);
+            }
+            newCallbackContext = newCallbackContext.toBuilder().existenceCheckAttempts(null).build();
+
+            if (!applicationExists) {
                 final Exception ex = ResourceNotFoundException.builder()
                         .message("Application does not exit for resource group " + model.getResourceGroupName())
                         .build();
                 return ProgressEvent.defaultFailureHandler(ex, ExceptionMapper.mapToHandlerErrorCode(ex));
-            } else {
-                // update the app
-                return ProgressEvent.defaultInProgressHandler(
-                        CallbackContext.builder()
-                                .currentStep(Step.APP_UPDATE.name())
-                                .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                .processingItem(null)
-                                .unprocessedItems(new ArrayList<>(Arrays.asList(model.getResourceGroupName())))
-                                .build(),
-                        Step.APP_UPDATE.getCallBackWaitSeconds(),
-                        model);
-            }
-        } else if (currentStep.equals(Step.APP_UPDATE.name())) {
-            // go to TAG_DELETION step next
-            List<String> tagKeysToDelete = HandlerHelper.getTagKeysToDelete(model, proxy, applicationInsightsClient);
-            ProgressEvent<ResourceModel, CallbackContext> tagDeletionStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.TAG_DELETION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(tagKeysToDelete)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new AppUpdateStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, tagDeletionStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.TAG_DELETION.name())) {
-            // go to TAG_CREATION step next
-            List<String> tagKeysToCreate = HandlerHelper.getTagKeysToCreate(model, proxy, applicationInsightsClient);
-            //HandlerHelper.getTagKeysToDeleteAndCreate(tagKeysToDelete, tagKeysToCreate, model, proxy, applicationInsightsClient);
-            ProgressEvent<ResourceModel, CallbackContext> tagCreationStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.TAG_CREATION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(tagKeysToCreate)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new TagDeletionStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, tagCreationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.TAG_CREATION.name())) {
-            // go to COMPONENT_DELETION step next
-            List<String> customComponentNamesToDelete = HandlerHelper.getCustomComponentNamesToDelete(model, proxy, applicationInsightsClient, logger);
-            ProgressEvent<ResourceModel, CallbackContext> componentDeletionStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.COMPONENT_DELETION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(customComponentNamesToDelete)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new TagCreationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, componentDeletionStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.COMPONENT_DELETION.name())) {
-            // go to COMPONENT_CREATION step next
-            List<String> customComponentNamesToCreate = HandlerHelper.getCustomComponentNamesToCreate(model, proxy, applicationInsightsClient, logger);
-            ProgressEvent<ResourceModel, CallbackContext> componentCreationStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.COMPONENT_CREATION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(customComponentNamesToCreate)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new ComponentDeletionStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, componentCreationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.COMPONENT_CREATION.name())) {
-            // go to LOG_PATTERN_DELETION step next
-            List<String> logPatternIdentifiersToDelete = HandlerHelper.getLogPatternIdentifiersToDelete(model, proxy, applicationInsightsClient);
-            ProgressEvent<ResourceModel, CallbackContext> logPatternDeletionStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.LOG_PATTERN_DELETION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(logPatternIdentifiersToDelete)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new ComponentCreationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, logPatternDeletionStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.LOG_PATTERN_DELETION.name())) {
-            // go to LOG_PATTERN_CREATION step next
-            List<String> logPatternIdentifiersToCreate = HandlerHelper.getLogPatternIdentifiersToCreate(model, proxy, applicationInsightsClient);
-            ProgressEvent<ResourceModel, CallbackContext> logPatternCreationStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.LOG_PATTERN_CREATION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(logPatternIdentifiersToCreate)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new LogPatternDeletionStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, logPatternCreationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.LOG_PATTERN_CREATION.name())) {
-            // go to LOG_PATTERN_UPDATE step next
-            List<String> logPatternIdentifiersToUpdate = HandlerHelper.getLogPatternIdentifiersToUpdate(model, proxy, applicationInsightsClient);
-            ProgressEvent<ResourceModel, CallbackContext> logPatternUpdateStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.LOG_PATTERN_UPDATE.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(logPatternIdentifiersToUpdate)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new LogPatternCreationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, logPatternUpdateStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.LOG_PATTERN_UPDATE.name())) {
-            // go to COMPONENT_CONFIGURATION step next
-            List<String> allComponentNamesWithMonitoringSettings = HandlerHelper.getAllComponentNamesWithMonitoringSettings(model, logger);
-            logger.log("All Component Names With Monitoring Settings: " + allComponentNamesWithMonitoringSettings.toString());
-            ProgressEvent<ResourceModel, CallbackContext> componentConfigurationStepInitProgressEvent =
-                    ProgressEvent.defaultInProgressHandler(
-                            CallbackContext.builder()
-                                    .currentStep(Step.COMPONENT_CONFIGURATION.name())
-                                    .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                    .processingItem(null)
-                                    .unprocessedItems(allComponentNamesWithMonitoringSettings)
-                                    .build(),
-                            TRANSITION_CALLBACK_DELAY_SECONDS,
-                            model);
-
-            return new LogPatternUpdateStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, componentConfigurationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.COMPONENT_CONFIGURATION.name())) {
-            // if not all components have monitoring settings,
-            // go to DEFAULT_COMPONENT_CONFIGURATION step if auto config is enabled,
-            // go to DISABLE_COMPONENT_CONFIGURATION step if auto config is disabled,
-            // otherwise succeed
-            ProgressEvent<ResourceModel, CallbackContext> successOrDefaultOrDisableConfigurationStepInitProgressEvent =
-                    ProgressEvent.defaultSuccessHandler(model);
-
-            List<String> configComponentNamesWithoutMonitoringSettings = HandlerHelper.getApplicationAllComponentNames(
-                    model, proxy, applicationInsightsClient);
-            List<String> allComponentNamesWithMonitoringSettings = HandlerHelper.getAllComponentNamesWithMonitoringSettings(model, logger);
-            configComponentNamesWithoutMonitoringSettings.removeAll(allComponentNamesWithMonitoringSettings);
-
-            if (configComponentNamesWithoutMonitoringSettings != null && !configComponentNamesWithoutMonitoringSettings.isEmpty()) {
-                Boolean autoConfigurationEnabled = model.getAutoConfigurationEnabled();
-                if (autoConfigurationEnabled != null && autoConfigurationEnabled) {
-                    successOrDefaultOrDisableConfigurationStepInitProgressEvent =
-                            ProgressEvent.defaultInProgressHandler(
-                                    CallbackContext.builder()
-                                            .currentStep(Step.DEFAULT_COMPONENT_CONFIGURATION.name())
-                                            .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                            .processingItem(null)
-                                            .unprocessedItems(configComponentNamesWithoutMonitoringSettings)
-                                            .build(),
-                                    TRANSITION_CALLBACK_DELAY_SECONDS,
-                                    model);
-                } else {
-                    successOrDefaultOrDisableConfigurationStepInitProgressEvent =
-                            ProgressEvent.defaultInProgressHandler(
-                                    CallbackContext.builder()
-                                            .currentStep(Step.DISABLE_COMPONENT_CONFIGURATION.name())
-                                            .stabilizationRetriesRemaining(newCallbackContext.getStabilizationRetriesRemaining())
-                                            .processingItem(null)
-                                            .unprocessedItems(configComponentNamesWithoutMonitoringSettings)
-                                            .build(),
-                                    TRANSITION_CALLBACK_DELAY_SECONDS,
-                                    model);
-                }
             }
+        }
 
-            return new ComponentConfigurationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, successOrDefaultOrDisableConfigurationStepInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.DEFAULT_COMPONENT_CONFIGURATION.name())) {
-            ProgressEvent<ResourceModel, CallbackContext> successInitProgressEvent =
-                    ProgressEvent.defaultSuccessHandler(model);
+        // tags, components and log patterns are reconciled independently of each other,
+        // component configuration waits for all of them.
+        // the application state is read once on the first invocation to plan all their items
+        final ReconciliationPlan reconciliationPlan = new ReconciliationPlan(model, proxy, applicationInsightsClient, logger);
+        return new StepGraph(ItemUniverse.fromModels(model, previousModel))
+                .step(Step.APP_UPDATE,
+                        Collections.emptyList(),
+                        () -> new ArrayList<>(Arrays.asList(model.getResourceGroupName())),
+                        stepContext -> new AppUpdateStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .plannedStep(Step.TAG_DELETION,
+                        Collections.emptyList(),
+                        reconciliationPlan::getTagKeysToDelete,
+                        stepContext -> new TagDeletionStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .plannedStep(Step.TAG_CREATION,
+                        Arrays.asList(Step.TAG_DELETION),
+                        reconciliationPlan::getTagKeysToCreate,
+                        stepContext -> new TagCreationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .plannedStep(Step.COMPONENT_DELETION,
+                        Arrays.asList(Step.APP_UPDATE),
+                        reconciliationPlan::getCustomComponentNamesToDelete,
+                        stepContext -> new ComponentDeletionStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .plannedStep(Step.COMPONENT_CREATION,
+                        Arrays.asList(Step.COMPONENT_DELETION),
+                        reconciliationPlan::getCustomComponentNamesToCreate,
+                        stepContext -> new ComponentCreationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .plannedStep(Step.LOG_PATTERN_RECONCILIATION,
+                        Arrays.asList(Step.APP_UPDATE),
+                        reconciliationPlan::getLogPatternIdentifiersToReconcile,
+                        stepContext -> new LogPatternReconciliationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .step(Step.COMPONENT_CONFIGURATION,
+                        Arrays.asList(Step.COMPONENT_CREATION, Step.LOG_PATTERN_RECONCILIATION),
+                        () -> HandlerHelper.getAllComponentNamesWithMonitoringSettings(model, logger),
+                        stepContext -> new ComponentConfigurationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .step(Step.DEFAULT_COMPONENT_CONFIGURATION,
+                        Arrays.asList(Step.COMPONENT_CONFIGURATION),
+                        () -> isAutoConfigurationEnabled(model) ?
+                                getComponentNamesWithoutMonitoringSettings(model, proxy, logger) : new ArrayList<>(),
+                        stepContext -> new DefaultComponentConfigurationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .step(Step.DISABLE_COMPONENT_CONFIGURATION,
+                        Arrays.asList(Step.COMPONENT_CONFIGURATION),
+                        () -> isAutoConfigurationEnabled(model) ?
+                                new ArrayList<>() : getComponentNamesWithoutMonitoringSettings(model, proxy, logger),
+                        stepContext -> new DisableComponentConfigurationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger))
+                .execute(model, newCallbackContext, executionBudget, logger);
+    }
 
-            return new DefaultComponentConfigurationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, successInitProgressEvent)
-                    .execute();
-        } else if (currentStep.equals(Step.DISABLE_COMPONENT_CONFIGURATION.name())) {
-            ProgressEvent<ResourceModel, CallbackContext> successInitProgressEvent =
-                    ProgressEvent.defaultSuccessHandler(model);
+    // components without monitoring settings get the default configuration if auto config is enabled,
+    // otherwise their monitoring is disabled
+    private List<String> getComponentNamesWithoutMonitoringSettings(
+            final ResourceModel model,
+            final AmazonWebServicesClientProxy proxy,
+            final Logger logger) {
+        List<String> configComponentNamesWithoutMonitoringSettings = HandlerHelper.getApplicationAllComponentNames(
+                model, proxy, applicationInsightsClient);
+        configComponentNamesWithoutMonitoringSettings.removeAll(HandlerHelper.getAllComponentNamesWithMonitoringSettings(model, logger));
+        return configComponentNamesWithoutMonitoringSettings;
+    }
 
-            return new DisableComponentConfigurationStepWorkflow(model, newCallbackContext, proxy, applicationInsightsClient, logger, successInitProgressEvent)
-                    .execute();
-        } else {
-            return ProgressEvent.defaultSuccessHandler(model);
-        }
+    private static boolean isAutoConfigurationEnabled(final ResourceModel model) {
+        Boolean autoConfigurationEnabled = model.getAutoConfigurationEnabled();
+        return autoConfigurationEnabled != null && autoConfigurationEnabled;
     }
 }
@@ -0,0 +1,32 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptivePollingSchedulerTest {
+
+    @Test
+    public void nextCallbackDelaySeconds_first_poll_uses_initial_wait() {
+        assertThat(AdaptivePollingScheduler.nextCallbackDelaySeconds(Step.APP_CREATION, null))
+                .isEqualTo(Step.APP_CREATION.getCallBackWaitSeconds());
+        assertThat(AdaptivePollingScheduler.nextCallbackDelaySeconds(Step.APP_CREATION, 0))
+                .isEqualTo(Step.APP_CREATION.getCallBackWaitSeconds());
+    }
+
+    @Test
+    public void nextCallbackDelaySeconds_backs_off_with_jitter() {
+        for (int i = 0; i < 100; i++) {
+            int delaySeconds = AdaptivePollingScheduler.nextCallbackDelaySeconds(2, 30, 3);
+            assertThat(delaySeconds).isBetween(8, 16);
+        }
+    }
+
+    @Test
+    public void nextCallbackDelaySeconds_capped_by_max_wait() {
+        for (int i = 0; i < 100; i++) {
+            int delaySeconds = AdaptivePollingScheduler.nextCallbackDelaySeconds(Step.APP_CREATION, 100);
+            assertThat(delaySeconds).isBetween(Step.APP_CREATION.getMaxCallBackWaitSeconds() / 2, Step.APP_CREATION.getMaxCallBackWaitSeconds());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimiterTest {
+
+    private final List<CompletableFuture<String>> startedCalls = new ArrayList<>();
+
+    @Test
+    public void submit_queues_calls_beyond_limit_until_a_call_completes() {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(2);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            results.add(concurrencyLimiter.submit(() -> {
+                startedCalls.add(call);
+                return call;
+            }));
+        }
+
+        assertThat(startedCalls).containsExactly(calls.get(0), calls.get(1));
+
+        calls.get(1).complete("second");
+        assertThat(results.get(1).join()).isEqualTo("second");
+        assertThat(startedCalls).containsExactly(calls.get(0), calls.get(1), calls.get(2));
+
+        calls.get(0).complete("first");
+        assertThat(startedCalls).containsExactly(calls.get(0), calls.get(1), calls.get(2), calls.get(3));
+    }
+
+    @Test
+    public void submit_halves_limit_when_call_is_throttled_and_grows_it_back() {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(8);
+
+        CompletableFuture<String> throttledCall = new CompletableFuture<>();
+        throttledCall.completeExceptionally(ApplicationInsightsException.builder()
+                .statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .build());
+        concurrencyLimiter.submit(() -> throttledCall);
+        assertThat(concurrencyLimiter.getConcurrencyLimit()).isEqualTo(4);
+
+        concurrencyLimiter.submit(() -> CompletableFuture.completedFuture("done"));
+        assertThat(concurrencyLimiter.getConcurrencyLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void submit_frees_slot_when_call_fails() {
+        ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(1);
+
+        CompletableFuture<String> failedResult = concurrencyLimiter.submit(() -> {
+            throw new IllegalStateException("failed to start");
+        });
+        CompletableFuture<String> result = concurrencyLimiter.submit(() -> CompletableFuture.completedFuture("done"));
+
+        assertThat(failedResult).isCompletedExceptionally();
+        assertThat(result.join()).isEqualTo("done");
+    }
+}
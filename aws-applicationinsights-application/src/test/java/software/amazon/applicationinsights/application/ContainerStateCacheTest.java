@@ -0,0 +1,79 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.applicationinsights.model.ListComponentsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListComponentsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ListLogPatternsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListLogPatternsResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContainerStateCacheTest {
+
+    private static final String SCOPE = "123456789101/us-east-1";
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    @Test
+    public void get_returns_listing_until_it_expires() {
+        ContainerStateCache cache = new ContainerStateCache(10000, 10, now::get);
+        ListComponentsResponse response = ListComponentsResponse.builder().build();
+        cache.put(SCOPE, "rg1", listComponents("rg1"), response);
+
+        now.set(9999);
+        assertThat(cache.get(SCOPE, "rg1", listComponents("rg1"))).isSameAs(response);
+        now.set(10000);
+        assertThat(cache.get(SCOPE, "rg1", listComponents("rg1"))).isNull();
+    }
+
+    @Test
+    public void get_does_not_share_listing_between_accounts() {
+        ContainerStateCache cache = new ContainerStateCache(10000, 10, now::get);
+        cache.put(SCOPE, "rg1", listComponents("rg1"), ListComponentsResponse.builder().build());
+
+        assertThat(cache.get("109876543210/us-east-1", "rg1", listComponents("rg1"))).isNull();
+    }
+
+    @Test
+    public void put_evicts_least_recently_used_listing_when_full() {
+        ContainerStateCache cache = new ContainerStateCache(10000, 2, now::get);
+        cache.put(SCOPE, "rg1", listComponents("rg1"), ListComponentsResponse.builder().build());
+        cache.put(SCOPE, "rg2", listComponents("rg2"), ListComponentsResponse.builder().build());
+        cache.get(SCOPE, "rg1", listComponents("rg1"));
+
+        cache.put(SCOPE, "rg3", listComponents("rg3"), ListComponentsResponse.builder().build());
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(SCOPE, "rg1", listComponents("rg1"))).isNotNull();
+        assertThat(cache.get(SCOPE, "rg2", listComponents("rg2"))).isNull();
+    }
+
+    @Test
+    public void invalidate_drops_all_listings_of_resource_group() {
+        ContainerStateCache cache = new ContainerStateCache(10000, 10, now::get);
+        cache.put(SCOPE, "rg1", listComponents("rg1"), ListComponentsResponse.builder().build());
+        cache.put(SCOPE, "rg1", ListLogPatternsRequest.builder().resourceGroupName("rg1").build(),
+                ListLogPatternsResponse.builder().build());
+        cache.put(SCOPE, "rg2", listComponents("rg2"), ListComponentsResponse.builder().build());
+
+        cache.invalidate("rg1", request -> true);
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(SCOPE, "rg2", listComponents("rg2"))).isNotNull();
+    }
+
+    @Test
+    public void put_is_ignored_when_cache_is_disabled() {
+        ContainerStateCache cache = new ContainerStateCache(0, 10, now::get);
+        cache.put(SCOPE, "rg1", listComponents("rg1"), ListComponentsResponse.builder().build());
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    private static ListComponentsRequest listComponents(String resourceGroupName) {
+        return ListComponentsRequest.builder().resourceGroupName(resourceGroupName).build();
+    }
+}
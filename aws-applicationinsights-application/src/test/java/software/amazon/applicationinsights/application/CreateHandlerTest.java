@@ -1,6 +1,9 @@
 package software.amazon.applicationinsights.application;
 
 import org.junitpioneer.jupiter.SetEnvironmentVariable;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsException;
+import software.amazon.awssdk.services.applicationinsights.model.CreateApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationRequest;
 import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
@@ -16,6 +19,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.applicationinsights.application.Constants.ACCOUNT_BASED_GROUPING_TYPE;
 import static software.amazon.applicationinsights.application.Constants.SHADOW_RG_PREFIX_ACCOUNT_BASED;
@@ -88,7 +93,7 @@ public class CreateHandlerTest {
         desiredResourceModel.setResourceGroupName(SHADOW_RG_PREFIX_ACCOUNT_BASED + RESOURCE_GROUP_NAME);
         desiredResourceModel.setGroupingType(ACCOUNT_BASED_GROUPING_TYPE);
 
-        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
                 .thenThrow(ResourceNotFoundException.builder().message("Could not find app").build());
 
         final ProgressEvent<ResourceModel, CallbackContext> response = createHandler.handleRequest(proxy, request, null, logger);
@@ -97,8 +102,47 @@ public class CreateHandlerTest {
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getMessage()).isNull();
         assertThat(response.getResult()).isNull();
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(Step.APP_CREATION.getCallBackWaitSeconds());
         assertThat(response.getResourceModels()).isNull();
+        // application creation is started within the first invocation
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(Step.APP_CREATION.name());
+        StepContext appCreationStepContext = response.getCallbackContext().getStepContexts().get(Step.APP_CREATION.name());
+        assertThat(ItemUniverse.fromModels(desiredResourceModel).decode(appCreationStepContext.getProcessingItemBitmap()))
+                .containsExactly(SHADOW_RG_PREFIX_ACCOUNT_BASED + RESOURCE_GROUP_NAME);
+        assertThat(appCreationStepContext.getProcessingItems()).isEmpty();
+        verify(proxy).injectCredentialsAndInvokeV2(any(CreateApplicationRequest.class), any());
+    }
+
+    @Test
+    public void create_handler_handleRequest_retries_throttled_existence_check() {
+
+        desiredResourceModel.setResourceGroupName(RESOURCE_GROUP_NAME);
+
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
+                .thenThrow(ApplicationInsightsException.builder().message("Rate exceeded").statusCode(429).build())
+                .thenThrow(ResourceNotFoundException.builder().message("Could not find app").build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> throttledResponse = createHandler.handleRequest(proxy, request, null, logger);
+
+        assertThat(throttledResponse.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(throttledResponse.getCallbackContext().getExistenceCheckAttempts()).isEqualTo(1);
+        assertThat(throttledResponse.getCallbackContext().getStepContexts()).isNull();
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(CreateApplicationRequest.class), any());
+
+        // the model handed back to the callback carries the application ARN
+        final ResourceHandlerRequest<ResourceModel> callbackRequest = ResourceHandlerRequest.<ResourceModel>builder()
+                .desiredResourceState(throttledResponse.getResourceModel())
+                .awsPartition("aws")
+                .region("us-east-1")
+                .awsAccountId("123456789101")
+                .build();
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                createHandler.handleRequest(proxy, callbackRequest, throttledResponse.getCallbackContext(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getExistenceCheckAttempts()).isNull();
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(Step.APP_CREATION.name());
+        verify(proxy).injectCredentialsAndInvokeV2(any(CreateApplicationRequest.class), any());
     }
 
     @Test
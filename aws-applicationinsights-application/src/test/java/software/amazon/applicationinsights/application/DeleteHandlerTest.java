@@ -1,8 +1,13 @@
 package software.amazon.applicationinsights.application;
 
 import org.junitpioneer.jupiter.SetEnvironmentVariable;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsException;
+import software.amazon.awssdk.services.applicationinsights.model.DeleteApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
 import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -16,6 +21,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.applicationinsights.application.Constants.ACCOUNT_BASED_GROUPING_TYPE;
 import static software.amazon.applicationinsights.application.Constants.SHADOW_RG_PREFIX_ACCOUNT_BASED;
@@ -59,10 +67,30 @@ public class DeleteHandlerTest {
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getMessage()).isNull();
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(10);
+        assertThat(response.getCallbackDelaySeconds())
+                .isBetween(Step.APP_DELETION.getCallBackWaitSeconds(), Step.APP_DELETION.getMaxCallBackWaitSeconds());
+        assertThat(response.getCallbackContext().getStepContexts()).containsKey(Step.APP_DELETION.name());
         assertThat(response.getResourceModels()).isNull();
     }
 
+    @Test
+    public void handleRequest_app_deleted_within_invocation() {
+
+        desiredResourceModel.setResourceGroupName(RESOURCE_GROUP_NAME);
+
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
+                .thenReturn(DescribeApplicationResponse.builder().build())
+                .thenThrow(ResourceNotFoundException.builder().message("Could not find app").build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = deleteHandler.handleRequest(proxy, request, null, logger);
+
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DeleteApplicationRequest.class), any());
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackContext()).isNull();
+        assertThat(response.getResourceModel()).isNull();
+    }
+
     @Test
     public void handleRequest_new_callback_context() {
 
@@ -92,4 +120,53 @@ public class DeleteHandlerTest {
         assertThat(response.getResourceModel()).isNull();
         assertThat(response.getResourceModels()).isNull();
     }
+
+    @Test
+    public void handleRequest_existence_check_throttled() {
+
+        desiredResourceModel.setResourceGroupName(RESOURCE_GROUP_NAME);
+
+        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+                .thenThrow(ApplicationInsightsException.builder().message("Rate exceeded").statusCode(429).build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = deleteHandler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getExistenceCheckAttempts()).isEqualTo(1);
+        assertThat(response.getCallbackDelaySeconds()).isBetween(
+                Constants.RETRY_CALLBACK_DELAY_SECONDS, 2 * Constants.RETRY_CALLBACK_DELAY_SECONDS);
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DeleteApplicationRequest.class), any());
+    }
+
+    @Test
+    public void handleRequest_existence_check_throttled_gives_up() {
+
+        desiredResourceModel.setResourceGroupName(RESOURCE_GROUP_NAME);
+
+        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+                .thenThrow(ApplicationInsightsException.builder().message("Rate exceeded").statusCode(429).build());
+
+        CallbackContext callbackContext = null;
+        int maxCallbackDelaySeconds = 0;
+        for (int attempt = 1; attempt <= Constants.MAX_ITEM_RETRY_ATTEMPTS; attempt++) {
+            final ProgressEvent<ResourceModel, CallbackContext> response =
+                    deleteHandler.handleRequest(proxy, request, callbackContext, logger);
+            assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+            assertThat(response.getCallbackContext().getExistenceCheckAttempts()).isEqualTo(attempt);
+            if (callbackContext != null) {
+                // the attempts are recorded in a copy, the callback context of the invocation is left as it is
+                assertThat(callbackContext.getExistenceCheckAttempts()).isEqualTo(attempt - 1);
+            }
+            maxCallbackDelaySeconds = Math.max(maxCallbackDelaySeconds, response.getCallbackDelaySeconds());
+            callbackContext = response.getCallbackContext();
+        }
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+                deleteHandler.handleRequest(proxy, request, callbackContext, logger);
+
+        // the delay backs off with the consecutive failures
+        assertThat(maxCallbackDelaySeconds).isGreaterThan(2 * Constants.RETRY_CALLBACK_DELAY_SECONDS);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+    }
 }
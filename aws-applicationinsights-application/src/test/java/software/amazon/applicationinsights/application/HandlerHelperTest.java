@@ -1,13 +1,29 @@
 package software.amazon.applicationinsights.application;
 
 import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.awssdk.services.applicationinsights.model.ApplicationInfo;
 import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 class HandlerHelperTest {
     @Test
@@ -23,6 +39,56 @@ class HandlerHelperTest {
         assertThrows(Exception.class, () -> HandlerHelper.extractResourceGroupNameFromApplicationArn(applicationArn));
     }
 
+    @Test
+    public void getCustomComponentNamesToDelete_compares_resource_lists_in_listed_order() {
+        AmazonWebServicesClientProxy proxy = mock(AmazonWebServicesClientProxy.class);
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeComponentRequest.class), any())).then(invocation -> {
+            DescribeComponentRequest request = invocation.getArgument(0);
+            return DescribeComponentResponse.builder()
+                    .resourceList(request.componentName().equals("c2") ? Arrays.asList("changed") : Arrays.asList(request.componentName()))
+                    .build();
+        });
+        ResourceModel model = ResourceModel.builder()
+                .resourceGroupName("resourceGroupName")
+                .customComponents(Stream.of("c1", "c2", "c3", "c4")
+                        .map(componentName -> CustomComponent.builder()
+                                .componentName(componentName)
+                                .resourceList(Arrays.asList(componentName))
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+
+        List<String> componentNamesToDelete = HandlerHelper.getCustomComponentNamesToDelete(
+                model, Arrays.asList("c0", "c4", "c3", "c2", "c1"), proxy,
+                ApplicationInsightsClient.builder().region(Region.US_EAST_1).build(), mock(Logger.class));
+
+        assertEquals(Arrays.asList("c0", "c2"), componentNamesToDelete);
+        verify(proxy, times(4)).injectCredentialsAndInvokeV2(any(DescribeComponentRequest.class), any());
+    }
+
+    @Test
+    public void getLogPatternIdentifiersToUpdate_compares_listed_log_patterns() {
+        ResourceModel model = ResourceModel.builder()
+                .resourceGroupName("resourceGroupName")
+                .logPatternSets(Arrays.asList(LogPatternSet.builder()
+                        .patternSetName("set")
+                        .logPatterns(Arrays.asList(
+                                LogPattern.builder().patternName("synced").pattern("error").rank(1).build(),
+                                LogPattern.builder().patternName("pattern").pattern("error").rank(1).build(),
+                                LogPattern.builder().patternName("rank").pattern("error").rank(1).build()))
+                        .build()))
+                .build();
+        Stream<software.amazon.awssdk.services.applicationinsights.model.LogPattern> appLogPatterns = Stream.of(
+                appLogPattern("synced", "error", 1),
+                appLogPattern("pattern", "warning", 1),
+                appLogPattern("rank", "error", 2),
+                appLogPattern("removed", "error", 1));
+
+        List<String> logPatternIdentifiersToUpdate = HandlerHelper.getLogPatternIdentifiersToUpdate(model, appLogPatterns);
+
+        assertEquals(Arrays.asList("set:pattern", "set:rank"), logPatternIdentifiersToUpdate);
+    }
+
     @Test
     public void appNeedsUpdate_cwe_not_equal() {
 
@@ -186,4 +252,14 @@ class HandlerHelperTest {
         return DescribeApplicationResponse.builder().applicationInfo(applicationInfo).build();
     }
 
+
+    private static software.amazon.awssdk.services.applicationinsights.model.LogPattern appLogPattern(
+            String patternName, String pattern, int rank) {
+        return software.amazon.awssdk.services.applicationinsights.model.LogPattern.builder()
+                .patternSetName("set")
+                .patternName(patternName)
+                .pattern(pattern)
+                .rank(rank)
+                .build();
+    }
 }
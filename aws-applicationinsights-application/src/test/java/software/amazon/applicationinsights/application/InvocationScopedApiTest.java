@@ -0,0 +1,213 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInfo;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentConfigurationRecommendationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentConfigurationRecommendationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateApplicationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateComponentConfigurationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateComponentConfigurationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateComponentRequest;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateComponentResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class InvocationScopedApiTest {
+
+    @Mock
+    private AmazonWebServicesClientProxy proxy;
+
+    private ApplicationInsightsClient applicationInsightsClient;
+
+    @BeforeEach
+    public void setup() {
+        applicationInsightsClient = ApplicationInsightsClient.builder().region(Region.US_EAST_1).build();
+    }
+
+    @Test
+    public void read_hits_service_once_per_invocation() {
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
+                .thenReturn(describeApplicationResponse("NOT_CONFIGURED"));
+
+        HandlerHelper.describeApplicationInsightsApplication("resourceGroupName", proxy, applicationInsightsClient);
+        DescribeApplicationResponse response =
+                HandlerHelper.describeApplicationInsightsApplication("resourceGroupName", proxy, applicationInsightsClient);
+
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any());
+        assertThat(response.applicationInfo().lifeCycle()).isEqualTo("NOT_CONFIGURED");
+    }
+
+    @Test
+    public void read_is_not_shared_between_invocations() {
+        AmazonWebServicesClientProxy nextInvocationProxy = mock(AmazonWebServicesClientProxy.class);
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
+                .thenReturn(describeApplicationResponse("NOT_CONFIGURED"));
+        when(nextInvocationProxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
+                .thenReturn(describeApplicationResponse("ACTIVE"));
+
+        HandlerHelper.describeApplicationInsightsApplication("resourceGroupName", proxy, applicationInsightsClient);
+        DescribeApplicationResponse response =
+                HandlerHelper.describeApplicationInsightsApplication("resourceGroupName", nextInvocationProxy, applicationInsightsClient);
+
+        assertThat(response.applicationInfo().lifeCycle()).isEqualTo("ACTIVE");
+    }
+
+    @Test
+    public void write_invalidates_cached_reads() {
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
+                .thenReturn(describeApplicationResponse("ACTIVE"))
+                .thenReturn(describeApplicationResponse("CONFIGURATION_IN_PROGRESS"));
+        when(proxy.injectCredentialsAndInvokeV2(any(UpdateApplicationRequest.class), any()))
+                .thenReturn(UpdateApplicationResponse.builder().build());
+
+        HandlerHelper.describeApplicationInsightsApplication("resourceGroupName", proxy, applicationInsightsClient);
+        InvocationScopedApi.write(UpdateApplicationRequest.builder().resourceGroupName("resourceGroupName").build(),
+                applicationInsightsClient::updateApplication, proxy);
+        DescribeApplicationResponse response =
+                HandlerHelper.describeApplicationInsightsApplication("resourceGroupName", proxy, applicationInsightsClient);
+
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any());
+        assertThat(response.applicationInfo().lifeCycle()).isEqualTo("CONFIGURATION_IN_PROGRESS");
+    }
+
+    @Test
+    public void configuration_write_keeps_cached_recommendation() {
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeComponentConfigurationRecommendationRequest.class), any()))
+                .thenReturn(DescribeComponentConfigurationRecommendationResponse.builder().componentConfiguration("{}").build());
+        when(proxy.injectCredentialsAndInvokeV2(any(UpdateComponentConfigurationRequest.class), any()))
+                .thenReturn(UpdateComponentConfigurationResponse.builder().build());
+        DescribeComponentConfigurationRecommendationRequest recommendationRequest =
+                DescribeComponentConfigurationRecommendationRequest.builder()
+                        .resourceGroupName("resourceGroupName")
+                        .componentName("c1")
+                        .tier("DEFAULT")
+                        .build();
+
+        InvocationScopedApi.read(recommendationRequest, applicationInsightsClient::describeComponentConfigurationRecommendation, proxy);
+        InvocationScopedApi.write(UpdateComponentConfigurationRequest.builder().resourceGroupName("resourceGroupName").componentName("c1").build(),
+                applicationInsightsClient::updateComponentConfiguration, proxy);
+        InvocationScopedApi.read(recommendationRequest, applicationInsightsClient::describeComponentConfigurationRecommendation, proxy);
+
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeComponentConfigurationRecommendationRequest.class), any());
+    }
+
+    @Test
+    public void recommendation_is_shared_between_invocations_of_bound_scope() {
+        AmazonWebServicesClientProxy nextInvocationProxy = mock(AmazonWebServicesClientProxy.class);
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeComponentConfigurationRecommendationRequest.class), any()))
+                .thenReturn(DescribeComponentConfigurationRecommendationResponse.builder().componentConfiguration("{}").build());
+        when(nextInvocationProxy.injectCredentialsAndInvokeV2(any(UpdateComponentRequest.class), any()))
+                .thenReturn(UpdateComponentResponse.builder().build());
+        when(nextInvocationProxy.injectCredentialsAndInvokeV2(any(DescribeComponentConfigurationRecommendationRequest.class), any()))
+                .thenReturn(DescribeComponentConfigurationRecommendationResponse.builder().componentConfiguration("{\"logs\":[]}").build());
+        InvocationScopedApi.bindInvocationScope(proxy, "123456789012", "us-east-1");
+        InvocationScopedApi.bindInvocationScope(nextInvocationProxy, "123456789012", "us-east-1");
+        DescribeComponentConfigurationRecommendationRequest recommendationRequest =
+                DescribeComponentConfigurationRecommendationRequest.builder()
+                        .resourceGroupName("recommendationResourceGroupName")
+                        .componentName("c1")
+                        .tier("DEFAULT")
+                        .build();
+
+        InvocationScopedApi.readAcrossInvocations(recommendationRequest,
+                applicationInsightsClient::describeComponentConfigurationRecommendation, proxy);
+        DescribeComponentConfigurationRecommendationResponse cachedResponse = InvocationScopedApi.readAcrossInvocations(
+                recommendationRequest, applicationInsightsClient::describeComponentConfigurationRecommendation, nextInvocationProxy);
+
+        assertThat(cachedResponse.componentConfiguration()).isEqualTo("{}");
+        verify(nextInvocationProxy, never()).injectCredentialsAndInvokeV2(any(DescribeComponentConfigurationRecommendationRequest.class), any());
+
+        // the resources of the component changed, the recommendation is read again
+        InvocationScopedApi.write(UpdateComponentRequest.builder().resourceGroupName("recommendationResourceGroupName").componentName("c1").build(),
+                applicationInsightsClient::updateComponent, nextInvocationProxy);
+        DescribeComponentConfigurationRecommendationResponse response = InvocationScopedApi.readAcrossInvocations(
+                recommendationRequest, applicationInsightsClient::describeComponentConfigurationRecommendation, nextInvocationProxy);
+
+        assertThat(response.componentConfiguration()).isEqualTo("{\"logs\":[]}");
+    }
+
+    @Test
+    public void read_fresh_bypasses_state_kept_across_invocations() {
+        AmazonWebServicesClientProxy nextInvocationProxy = mock(AmazonWebServicesClientProxy.class);
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeComponentConfigurationRecommendationRequest.class), any()))
+                .thenReturn(DescribeComponentConfigurationRecommendationResponse.builder().componentConfiguration("{}").build());
+        when(nextInvocationProxy.injectCredentialsAndInvokeV2(any(DescribeComponentConfigurationRecommendationRequest.class), any()))
+                .thenReturn(DescribeComponentConfigurationRecommendationResponse.builder().componentConfiguration("{\"logs\":[]}").build());
+        InvocationScopedApi.bindInvocationScope(proxy, "123456789012", "us-east-1");
+        InvocationScopedApi.bindInvocationScope(nextInvocationProxy, "123456789012", "us-east-1");
+        DescribeComponentConfigurationRecommendationRequest recommendationRequest =
+                DescribeComponentConfigurationRecommendationRequest.builder()
+                        .resourceGroupName("freshResourceGroupName")
+                        .componentName("c1")
+                        .tier("DEFAULT")
+                        .build();
+
+        InvocationScopedApi.readAcrossInvocations(recommendationRequest,
+                applicationInsightsClient::describeComponentConfigurationRecommendation, proxy);
+        DescribeComponentConfigurationRecommendationResponse response = InvocationScopedApi.readFresh(() ->
+                InvocationScopedApi.readAcrossInvocations(recommendationRequest,
+                        applicationInsightsClient::describeComponentConfigurationRecommendation, nextInvocationProxy));
+
+        assertThat(response.componentConfiguration()).isEqualTo("{\"logs\":[]}");
+        verify(nextInvocationProxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeComponentConfigurationRecommendationRequest.class), any());
+    }
+
+    @Test
+    public void calls_beyond_burst_are_paced_at_configured_rate() {
+        TokenBucket readTokenBucket = InvocationScopedApi.getReadTokenBucket();
+        TokenBucket mutationTokenBucket = InvocationScopedApi.getMutationTokenBucket();
+        // one call of each kind runs at once, each of the others waits 200 ms for its token
+        TokenBucket pacedReads = new TokenBucket(5, 1);
+        TokenBucket pacedMutations = new TokenBucket(5, 1);
+        InvocationScopedApi.setTokenBuckets(pacedReads, pacedMutations);
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
+                .thenReturn(describeApplicationResponse("ACTIVE"));
+        when(proxy.injectCredentialsAndInvokeV2(any(UpdateApplicationRequest.class), any()))
+                .thenReturn(UpdateApplicationResponse.builder().build());
+
+        try {
+            long startMillis = System.currentTimeMillis();
+            for (int i = 0; i < 4; i++) {
+                HandlerHelper.describeApplicationInsightsApplication("resourceGroupName" + i, proxy, applicationInsightsClient);
+            }
+            for (int i = 0; i < 3; i++) {
+                InvocationScopedApi.write(UpdateApplicationRequest.builder().resourceGroupName("resourceGroupName" + i).build(),
+                        applicationInsightsClient::updateApplication, proxy);
+            }
+            long elapsedMillis = System.currentTimeMillis() - startMillis;
+
+            verify(proxy, times(4)).injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any());
+            verify(proxy, times(3)).injectCredentialsAndInvokeV2(any(UpdateApplicationRequest.class), any());
+            assertThat(pacedReads.getDelayedCalls()).isEqualTo(3);
+            assertThat(pacedMutations.getDelayedCalls()).isEqualTo(2);
+            assertThat(elapsedMillis).isGreaterThanOrEqualTo(pacedReads.getTotalWaitMillis() + pacedMutations.getTotalWaitMillis());
+            assertThat(InvocationScopedApi.describeRateLimiting())
+                    .startsWith("3 reads waited").contains("2 mutating calls waited");
+        } finally {
+            InvocationScopedApi.setTokenBuckets(readTokenBucket, mutationTokenBucket);
+        }
+    }
+
+    private static DescribeApplicationResponse describeApplicationResponse(String lifeCycle) {
+        return DescribeApplicationResponse.builder()
+                .applicationInfo(ApplicationInfo.builder().lifeCycle(lifeCycle).build())
+                .build();
+    }
+}
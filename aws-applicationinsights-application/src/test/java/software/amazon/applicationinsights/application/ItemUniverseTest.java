@@ -0,0 +1,66 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ItemUniverseTest {
+
+    @Test
+    public void fromModels_collects_item_identifiers_of_all_models() {
+        ResourceModel model = ResourceModel.builder()
+                .resourceGroupName("resourceGroupName")
+                .tags(Arrays.asList(Tag.builder().key("key1").value("value1").build()))
+                .customComponents(Arrays.asList(CustomComponent.builder().componentName("component1").build()))
+                .componentMonitoringSettings(Arrays.asList(ComponentMonitoringSetting.builder()
+                        .componentARN("arn:aws:ec2:us-east-1:123456789012:instance/i-1")
+                        .build()))
+                .logPatternSets(Arrays.asList(LogPatternSet.builder()
+                        .patternSetName("set1")
+                        .logPatterns(Arrays.asList(LogPattern.builder().patternName("pattern1").build()))
+                        .build()))
+                .build();
+        ResourceModel previousModel = ResourceModel.builder()
+                .resourceGroupName("resourceGroupName")
+                .customComponents(Arrays.asList(CustomComponent.builder().componentName("component0").build()))
+                .build();
+
+        ItemUniverse itemUniverse = ItemUniverse.fromModels(model, previousModel);
+
+        assertThat(itemUniverse.size()).isEqualTo(6);
+        assertThat(itemUniverse.contains("component0")).isTrue();
+        assertThat(itemUniverse.contains("set1:pattern1")).isTrue();
+        assertThat(itemUniverse.contains("arn:aws:ec2:us-east-1:123456789012:instance/i-1")).isTrue();
+    }
+
+    @Test
+    public void encode_and_decode_round_trip() {
+        ItemUniverse itemUniverse = ItemUniverse.of(Arrays.asList("c3", "c1", "c2", "c4"));
+        List<String> literalItems = new ArrayList<>();
+
+        String bitmap = itemUniverse.encode(Arrays.asList("c4", "other", "c2"), literalItems);
+
+        assertThat(itemUniverse.decode(bitmap)).containsExactly("c2", "c4");
+        assertThat(literalItems).containsExactly("other");
+    }
+
+    @Test
+    public void encode_returns_null_when_no_item_is_part_of_universe() {
+        ItemUniverse itemUniverse = ItemUniverse.of(Arrays.asList("c1"));
+
+        assertThat(itemUniverse.encode(Collections.emptyList(), new ArrayList<>())).isNull();
+        assertThat(itemUniverse.decode(null)).isEmpty();
+    }
+
+    @Test
+    public void fingerprint_does_not_depend_on_item_order() {
+        assertThat(ItemUniverse.of(Arrays.asList("c1", "c2")).fingerprint())
+                .isEqualTo(ItemUniverse.of(Arrays.asList("c2", "c1")).fingerprint())
+                .isNotEqualTo(ItemUniverse.of(Arrays.asList("c1", "c3")).fingerprint());
+    }
+}
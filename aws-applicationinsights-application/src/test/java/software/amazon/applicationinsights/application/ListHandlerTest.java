@@ -5,18 +5,43 @@ import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInfo;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ListApplicationsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListApplicationsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ListComponentsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListComponentsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ListLogPatternsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListLogPatternsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListTagsForResourceResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junitpioneer.jupiter.SetEnvironmentVariable;
 import org.mockito.Mock;
+import org.mockito.exceptions.misusing.InvalidUseOfMatchersException;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
+@SetEnvironmentVariable(key = "AWS_REGION", value = "us-east-1")
 public class ListHandlerTest {
 
+    private static final String APP_ARN_PREFIX = "arn:aws:applicationinsights:us-east-1:000000000000:application/resource-group/";
+
     @Mock
     private AmazonWebServicesClientProxy proxy;
 
@@ -51,4 +76,90 @@ public class ListHandlerTest {
 //        assertThat(response.getMessage()).isNull();
 //        assertThat(response.getErrorCode()).isNull();
 //    }
+
+    @Test
+    public void handleRequest_reads_models_of_listed_applications() {
+        when(proxy.injectCredentialsAndInvokeV2(any(ListApplicationsRequest.class), any()))
+                .thenReturn(listApplicationsResponse());
+        when(proxy.injectCredentialsAndInvokeV2Async(any(), any()))
+                .then(invocation -> CompletableFuture.completedFuture(readResponse(invocation.getArgument(0))));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            new ListHandler(false).handleRequest(proxy, listRequest(), null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getNextToken()).isEqualTo("nextToken");
+        assertThat(response.getResourceModels()).hasSize(2);
+        assertThat(response.getResourceModels().get(0).getResourceGroupName()).isEqualTo("rg1");
+        assertThat(response.getResourceModels().get(0).getOpsCenterEnabled()).isTrue();
+        assertThat(response.getResourceModels().get(1).getApplicationARN()).isEqualTo(APP_ARN_PREFIX + "rg2");
+        assertThat(response.getResourceModels().get(1).getOpsCenterEnabled()).isTrue();
+    }
+
+    @Test
+    public void handleRequest_identifiers_projection_reads_no_application() {
+        when(proxy.injectCredentialsAndInvokeV2(any(ListApplicationsRequest.class), any()))
+                .thenReturn(listApplicationsResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            new ListHandler(true).handleRequest(proxy, listRequest(), null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getNextToken()).isEqualTo("nextToken");
+        assertThat(response.getResourceModels()).containsExactly(
+                ResourceModel.builder().resourceGroupName("rg1").applicationARN(APP_ARN_PREFIX + "rg1").build(),
+                ResourceModel.builder().resourceGroupName("rg2").applicationARN(APP_ARN_PREFIX + "rg2").build());
+        verify(proxy, never()).injectCredentialsAndInvokeV2Async(any(), any());
+    }
+
+    @Test
+    public void handleRequest_skips_empty_pages() {
+        when(proxy.injectCredentialsAndInvokeV2(any(ListApplicationsRequest.class), any()))
+                .then(invocation -> ((ListApplicationsRequest) invocation.getArgument(0)).nextToken() == null ?
+                        ListApplicationsResponse.builder().nextToken("emptyPageToken").build() :
+                        listApplicationsResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            new ListHandler(true).handleRequest(proxy, listRequest(), null, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getNextToken()).isEqualTo("nextToken");
+        assertThat(response.getResourceModels()).hasSize(2);
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(ListApplicationsRequest.class), any());
+    }
+
+    private static ResourceHandlerRequest<ResourceModel> listRequest() {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .awsPartition("aws")
+            .region("us-east-1")
+            .awsAccountId("000000000000")
+            .build();
+    }
+
+    private static ListApplicationsResponse listApplicationsResponse() {
+        return ListApplicationsResponse.builder()
+                .applicationInfoList(
+                        ApplicationInfo.builder().resourceGroupName("rg1").build(),
+                        ApplicationInfo.builder().resourceGroupName("rg2").build())
+                .nextToken("nextToken")
+                .build();
+    }
+
+    private static ApplicationInsightsResponse readResponse(ApplicationInsightsRequest request) {
+        if (request instanceof DescribeApplicationRequest) {
+            return DescribeApplicationResponse.builder()
+                    .applicationInfo(ApplicationInfo.builder()
+                            .cweMonitorEnabled(true)
+                            .opsCenterEnabled(true)
+                            .build())
+                    .build();
+        } else if (request instanceof ListTagsForResourceRequest) {
+            return ListTagsForResourceResponse.builder().build();
+        } else if (request instanceof ListComponentsRequest) {
+            return ListComponentsResponse.builder().build();
+        } else if (request instanceof ListLogPatternsRequest) {
+            return ListLogPatternsResponse.builder().build();
+        }
+        throw new InvalidUseOfMatchersException("Argument has no matcher: " + request);
+    }
 }
@@ -0,0 +1,74 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PaginatorTest {
+
+    // page token -> items of the page and token of the next page
+    private final Map<String, List<String>> pageItems = new HashMap<>();
+    private final Map<String, String> nextTokens = new HashMap<>();
+    private final List<String> fetchedTokens = new ArrayList<>();
+
+    @Test
+    public void stream_follows_next_token_over_empty_pages() {
+        page(null, Arrays.asList("a", "b"), "t1");
+        page("t1", Collections.emptyList(), "t2");
+        page("t2", Arrays.asList("c"), null);
+
+        assertThat(paginator(null).stream().collect(Collectors.toList())).containsExactly("a", "b", "c");
+        assertThat(fetchedTokens).containsExactly(null, "t1", "t2");
+    }
+
+    @Test
+    public void stream_stops_fetching_once_terminated_early() {
+        page(null, Arrays.asList("a", "b"), "t1");
+        page("t1", Arrays.asList("c"), null);
+
+        assertThat(paginator(null).stream().anyMatch("b"::equals)).isTrue();
+        assertThat(fetchedTokens).containsExactly((String) null);
+    }
+
+    @Test
+    public void stream_starts_from_first_token() {
+        page("t1", Arrays.asList("c"), null);
+
+        assertThat(paginator("t1").stream().collect(Collectors.toList())).containsExactly("c");
+        assertThat(fetchedTokens).containsExactly("t1");
+    }
+
+    @Test
+    public void pages_are_fetched_lazily() {
+        page(null, Collections.emptyList(), "t1");
+        page("t1", Arrays.asList("a"), "t2");
+        page("t2", Arrays.asList("b"), null);
+
+        assertThat(paginator(null).pages().filter(token -> !pageItems.get(token).isEmpty()).findFirst()).contains("t1");
+        assertThat(fetchedTokens).containsExactly(null, "t1");
+    }
+
+    private void page(String token, List<String> items, String nextToken) {
+        pageItems.put(token, items);
+        nextTokens.put(token, nextToken);
+    }
+
+    private Paginator<String, String> paginator(String firstToken) {
+        return new Paginator<>(
+                firstToken,
+                token -> {
+                    fetchedTokens.add(token);
+                    return token;
+                },
+                pageItems::get,
+                nextTokens::get);
+    }
+}
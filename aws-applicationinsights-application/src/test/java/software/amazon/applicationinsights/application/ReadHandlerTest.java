@@ -8,7 +8,9 @@ import org.mockito.Mock;
 import org.mockito.exceptions.misusing.InvalidUseOfMatchersException;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.services.applicationinsights.model.ApplicationInfo;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsException;
 import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsResponse;
 import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationRequest;
 import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
 import software.amazon.awssdk.services.applicationinsights.model.ListComponentsRequest;
@@ -20,12 +22,14 @@ import software.amazon.awssdk.services.applicationinsights.model.ListTagsForReso
 import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
 import software.amazon.awssdk.services.applicationinsights.model.Tag;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -87,6 +91,21 @@ public class ReadHandlerTest {
         assertThat(result.getStatus()).isEqualTo(OperationStatus.FAILED);
     }
 
+    @Test
+    public void handleRequest_Failed_Throttled() {
+        desiredResourceModel.setApplicationARN(APP_ARN);
+
+        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+                .thenThrow(ApplicationInsightsException.builder().message("Rate exceeded").statusCode(429).build());
+
+        ProgressEvent<ResourceModel, CallbackContext> result =
+                readHandler.handleRequest(proxy, request, null, logger);
+
+        assertThat(result).isNotNull();
+        assertThat(result.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(result.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+    }
+
     @Test
     public void handleRequest_Failed_CouldNotGenerateReadModel() {
         desiredResourceModel.setApplicationARN(APP_ARN);
@@ -102,30 +121,10 @@ public class ReadHandlerTest {
     public void handleRequest_Success() {
         desiredResourceModel.setApplicationARN(APP_ARN);
 
-        when(proxy.injectCredentialsAndInvokeV2(any(), any())).then(invocation -> {
-            ApplicationInsightsRequest request = invocation.getArgument(0);
-            if (request.equals(DescribeApplicationRequest.builder()
-                    .resourceGroupName(RESOURCE_GROUP_NAME)
-                    .build())) {
-                return DescribeApplicationResponse.builder()
-                        .applicationInfo(
-                                ApplicationInfo.builder()
-                                        .cweMonitorEnabled(false)
-                                        .opsCenterEnabled(true)
-                                        .opsItemSNSTopicArn("opsItemArn")
-                                        .build())
-                        .build();
-            } else if (request.equals(ListTagsForResourceRequest.builder().resourceARN(APP_ARN).build())) {
-                return ListTagsForResourceResponse.builder()
-                        .tags(Tag.builder().key("key").value("val").build())
-                        .build();
-            } else if (request.equals(ListComponentsRequest.builder().resourceGroupName(RESOURCE_GROUP_NAME).maxResults(40).build())) {
-                return ListComponentsResponse.builder().build();
-            } else if (request.equals(ListLogPatternsRequest.builder().resourceGroupName(RESOURCE_GROUP_NAME).build())) {
-                return ListLogPatternsResponse.builder().build();
-            }
-            throw new InvalidUseOfMatchersException("Argument has no matcher: " + request);
-        });
+        when(proxy.injectCredentialsAndInvokeV2(any(), any()))
+                .then(invocation -> readResponse(invocation.getArgument(0)));
+        when(proxy.injectCredentialsAndInvokeV2Async(any(), any()))
+                .then(invocation -> CompletableFuture.completedFuture(readResponse(invocation.getArgument(0))));
 
         ProgressEvent<ResourceModel, CallbackContext> result =
                 readHandler.handleRequest(proxy, request, null, logger);
@@ -140,4 +139,28 @@ public class ReadHandlerTest {
                 .isEqualTo(Arrays.asList(
                         software.amazon.applicationinsights.application.Tag.builder().key("key").value("val").build()));
     }
+
+    private static ApplicationInsightsResponse readResponse(ApplicationInsightsRequest request) {
+        if (request.equals(DescribeApplicationRequest.builder()
+                .resourceGroupName(RESOURCE_GROUP_NAME)
+                .build())) {
+            return DescribeApplicationResponse.builder()
+                    .applicationInfo(
+                            ApplicationInfo.builder()
+                                    .cweMonitorEnabled(false)
+                                    .opsCenterEnabled(true)
+                                    .opsItemSNSTopicArn("opsItemArn")
+                                    .build())
+                    .build();
+        } else if (request.equals(ListTagsForResourceRequest.builder().resourceARN(APP_ARN).build())) {
+            return ListTagsForResourceResponse.builder()
+                    .tags(Tag.builder().key("key").value("val").build())
+                    .build();
+        } else if (request.equals(ListComponentsRequest.builder().resourceGroupName(RESOURCE_GROUP_NAME).maxResults(40).build())) {
+            return ListComponentsResponse.builder().build();
+        } else if (request.equals(ListLogPatternsRequest.builder().resourceGroupName(RESOURCE_GROUP_NAME).build())) {
+            return ListLogPatternsResponse.builder().build();
+        }
+        throw new InvalidUseOfMatchersException("Argument has no matcher: " + request);
+    }
 }
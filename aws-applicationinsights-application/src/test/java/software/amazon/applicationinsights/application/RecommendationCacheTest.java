@@ -0,0 +1,38 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RecommendationCacheTest {
+
+    private static final String RECOMMENDATION = "{\"alarmMetrics\":[{\"alarmMetricName\":\"CPUUtilization\"}]}";
+
+    @Test
+    public void get_shares_parsed_recommendation_with_same_content() throws IOException {
+        RecommendationCache cache = new RecommendationCache(10);
+
+        RecommendationCache.ParsedRecommendation first = cache.get(RECOMMENDATION);
+        RecommendationCache.ParsedRecommendation second = cache.get(new String(RECOMMENDATION));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getInputComponentConfiguration().getAlarmMetrics()).hasSize(1);
+        assertThat(first.getComponentConfiguration()).contains("CPUUtilization");
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_evicts_least_recently_used_recommendation_when_full() throws IOException {
+        RecommendationCache cache = new RecommendationCache(2);
+        RecommendationCache.ParsedRecommendation first = cache.get("{\"logs\":[]}");
+        cache.get("{\"alarms\":[]}");
+        cache.get("{\"logs\":[]}");
+
+        cache.get("{\"windowsEvents\":[]}");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("{\"logs\":[]}")).isSameAs(first);
+    }
+}
@@ -0,0 +1,418 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.applicationinsights.application.StepWorkflow.BaseStepWorkflow;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ValidationException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@ExtendWith(MockitoExtension.class)
+public class StepGraphTest {
+
+    @Mock
+    private AmazonWebServicesClientProxy proxy;
+
+    @Mock
+    private ApplicationInsightsClient applicationInsightsClient;
+
+    @Mock
+    private Logger logger;
+
+    private ResourceModel model;
+    private Set<String> finishedItems;
+    private List<String> startedItems;
+    private AtomicInteger componentConfigurationItemsComputed;
+    private StepGraph stepGraph;
+
+    @BeforeEach
+    public void setup() {
+        model = ResourceModel.builder()
+                .resourceGroupName("resourceGroupName")
+                .customComponents(Arrays.asList(
+                        CustomComponent.builder().componentName("c1").build(),
+                        CustomComponent.builder().componentName("c2").build()))
+                .build();
+        finishedItems = new HashSet<>();
+        startedItems = new ArrayList<>();
+        componentConfigurationItemsComputed = new AtomicInteger();
+
+        // APP_CREATION -> {COMPONENT_CREATION, LOG_PATTERN_RECONCILIATION} -> COMPONENT_CONFIGURATION
+        stepGraph = new StepGraph(ItemUniverse.fromModels(model)) {
+            @Override
+            protected long getInInvocationPollBudgetMillis(Step step) {
+                return 0;
+            }
+        }
+                .step(Step.APP_CREATION,
+                        Collections.emptyList(),
+                        () -> items("app"),
+                        stepContext -> new TestStepWorkflow(Step.APP_CREATION, stepContext))
+                .step(Step.COMPONENT_CREATION,
+                        Arrays.asList(Step.APP_CREATION),
+                        () -> items("c1", "c2"),
+                        stepContext -> new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext))
+                .step(Step.LOG_PATTERN_RECONCILIATION,
+                        Arrays.asList(Step.APP_CREATION),
+                        () -> items("p1"),
+                        stepContext -> new TestStepWorkflow(Step.LOG_PATTERN_RECONCILIATION, stepContext))
+                .step(Step.COMPONENT_CONFIGURATION,
+                        Arrays.asList(Step.COMPONENT_CREATION, Step.LOG_PATTERN_RECONCILIATION),
+                        () -> {
+                            componentConfigurationItemsComputed.incrementAndGet();
+                            return items("c1");
+                        },
+                        stepContext -> new TestStepWorkflow(Step.COMPONENT_CONFIGURATION, stepContext));
+    }
+
+    @Test
+    public void execute_starts_root_steps_on_first_invocation() {
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, newCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(startedItems).containsExactly("app");
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(Step.APP_CREATION.name());
+        assertThat(response.getCallbackContext().getFinishedSteps()).isEmpty();
+        assertThat(response.getCallbackContext().getStabilizationRetriesRemaining()).isEqualTo(9);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(Step.APP_CREATION.getCallBackWaitSeconds());
+    }
+
+    @Test
+    public void execute_starts_independent_steps_together() {
+        CallbackContext callbackContext = newCallbackContext();
+        callbackContext.setStepContexts(runningStep(Step.APP_CREATION, "app"));
+        finishedItems.add("app");
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, callbackContext, ExecutionBudget.forInvocation(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(startedItems).containsExactly("c1", "c2", "p1");
+        assertThat(response.getCallbackContext().getStepContexts())
+                .containsOnlyKeys(Step.COMPONENT_CREATION.name(), Step.LOG_PATTERN_RECONCILIATION.name());
+        assertThat(response.getCallbackContext().getFinishedSteps()).containsExactly(Step.APP_CREATION.name());
+        // the most urgent running step decides when to call back
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(1);
+        assertThat(componentConfigurationItemsComputed.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void execute_waits_for_all_dependencies_before_starting_step() {
+        CallbackContext callbackContext = newCallbackContext();
+        Map<String, StepContext> stepContexts = runningStep(Step.COMPONENT_CREATION, "c1");
+        stepContexts.putAll(runningStep(Step.LOG_PATTERN_RECONCILIATION, "p1"));
+        callbackContext.setStepContexts(stepContexts);
+        callbackContext.setFinishedSteps(items(Step.APP_CREATION.name()));
+        finishedItems.add("p1");
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, callbackContext, ExecutionBudget.forInvocation(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(Step.COMPONENT_CREATION.name());
+        assertThat(response.getCallbackContext().getFinishedSteps())
+                .containsExactly(Step.APP_CREATION.name(), Step.LOG_PATTERN_RECONCILIATION.name());
+        assertThat(componentConfigurationItemsComputed.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void execute_runs_steps_without_wait_within_one_invocation() {
+        CallbackContext callbackContext = newCallbackContext();
+        Map<String, StepContext> stepContexts = runningStep(Step.COMPONENT_CREATION, "c1");
+        stepContexts.putAll(runningStep(Step.LOG_PATTERN_RECONCILIATION, "p1"));
+        callbackContext.setStepContexts(stepContexts);
+        callbackContext.setFinishedSteps(items(Step.APP_CREATION.name()));
+        finishedItems.addAll(Arrays.asList("c1", "p1"));
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, callbackContext, ExecutionBudget.forInvocation(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(startedItems).containsExactly("c1");
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(Step.COMPONENT_CONFIGURATION.name());
+        assertThat(componentConfigurationItemsComputed.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void execute_succeeds_when_all_steps_finished() {
+        CallbackContext callbackContext = newCallbackContext();
+        callbackContext.setStepContexts(runningStep(Step.COMPONENT_CONFIGURATION, "c1"));
+        callbackContext.setFinishedSteps(items(
+                Step.APP_CREATION.name(), Step.COMPONENT_CREATION.name(), Step.LOG_PATTERN_RECONCILIATION.name()));
+        finishedItems.add("c1");
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, callbackContext, ExecutionBudget.forInvocation(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(model);
+    }
+
+    @Test
+    public void execute_fails_when_step_fails() {
+        CallbackContext callbackContext = newCallbackContext();
+        callbackContext.setStepContexts(runningStep(Step.APP_CREATION, "fail"));
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, callbackContext, ExecutionBudget.forInvocation(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+        assertThat(response.getMessage()).isEqualTo("invalid item");
+        assertThat(response.getCallbackContext()).isNull();
+    }
+
+    @Test
+    public void execute_keeps_model_items_as_bitmap() {
+        CallbackContext callbackContext = newCallbackContext();
+        callbackContext.setStepContexts(runningStep(Step.APP_CREATION, "app"));
+        finishedItems.add("app");
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, callbackContext, ExecutionBudget.forInvocation(), logger);
+
+        // custom components are part of the model, the log pattern is not
+        StepContext componentCreationStepContext = response.getCallbackContext().getStepContexts().get(Step.COMPONENT_CREATION.name());
+        assertThat(componentCreationStepContext.getProcessingItems()).isEmpty();
+        assertThat(ItemUniverse.fromModels(model).decode(componentCreationStepContext.getProcessingItemBitmap()))
+                .containsExactly("c1", "c2");
+        StepContext logPatternReconciliationStepContext = response.getCallbackContext().getStepContexts().get(Step.LOG_PATTERN_RECONCILIATION.name());
+        assertThat(logPatternReconciliationStepContext.getProcessingItems()).containsExactly("p1");
+        assertThat(logPatternReconciliationStepContext.getProcessingItemBitmap()).isNull();
+
+        // the encoded step contexts are decoded by the next invocation
+        finishedItems.addAll(Arrays.asList("c1", "c2", "p1"));
+        response = stepGraph.execute(model, response.getCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(Step.COMPONENT_CONFIGURATION.name());
+    }
+
+    @Test
+    public void execute_keeps_step_item_universe_when_items_are_many() {
+        List<String> discoveredComponents = new ArrayList<>();
+        for (int i = 0; i < Constants.MAX_LITERAL_ITEMS_IN_CALLBACK_CONTEXT + 5; i++) {
+            discoveredComponents.add("arn:aws:ec2:us-east-1:123456789012:instance/i-" + i);
+        }
+        StepGraph stepGraph = new StepGraph(ItemUniverse.fromModels(model))
+                .step(Step.APP_CREATION,
+                        Collections.emptyList(),
+                        () -> new ArrayList<>(discoveredComponents),
+                        stepContext -> new TestStepWorkflow(Step.APP_CREATION, stepContext));
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, newCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        StepContext stepContext = response.getCallbackContext().getStepContexts().get(Step.APP_CREATION.name());
+        assertThat(stepContext.getItemUniverseFingerprint()).isNotNull();
+        assertThat(stepContext.getUnprocessedItems()).isEmpty();
+        assertThat(stepContext.getProcessingItems()).isEmpty();
+        assertThat(startedItems).hasSize(1);
+
+        // the first item finishes, the next one is picked from the decoded bitmap
+        finishedItems.add(startedItems.get(0));
+        response = stepGraph.execute(model, response.getCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        assertThat(startedItems).hasSize(2);
+        assertThat(response.getCallbackContext().getStepContexts().get(Step.APP_CREATION.name())
+                .getItemUniverseFingerprint()).isEqualTo(stepContext.getItemUniverseFingerprint());
+
+        // the items listed again would differ, the step goes on with the items it started with
+        discoveredComponents.remove(0);
+        finishedItems.add(startedItems.get(1));
+        response = stepGraph.execute(model, response.getCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        assertThat(startedItems).hasSize(3);
+        assertThat(startedItems).doesNotHaveDuplicates();
+        assertThat(response.getCallbackContext().getStepContexts().get(Step.APP_CREATION.name())
+                .getItemUniverseFingerprint()).isEqualTo(stepContext.getItemUniverseFingerprint());
+    }
+
+    @Test
+    public void execute_rebuilds_step_item_universe_on_another_container() {
+        List<String> discoveredComponents = new ArrayList<>();
+        for (int i = 0; i < Constants.MAX_LITERAL_ITEMS_IN_CALLBACK_CONTEXT + 5; i++) {
+            discoveredComponents.add("arn:aws:ec2:us-east-1:123456789012:instance/i-" + i);
+        }
+        AtomicInteger itemsComputed = new AtomicInteger();
+        StepGraph stepGraph = new StepGraph(ItemUniverse.fromModels(model))
+                .step(Step.APP_CREATION,
+                        Collections.emptyList(),
+                        () -> {
+                            itemsComputed.incrementAndGet();
+                            return new ArrayList<>(discoveredComponents);
+                        },
+                        stepContext -> new TestStepWorkflow(Step.APP_CREATION, stepContext));
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, newCallbackContext(), ExecutionBudget.forInvocation(), logger);
+        String fingerprint = response.getCallbackContext().getStepContexts().get(Step.APP_CREATION.name())
+                .getItemUniverseFingerprint();
+        assertThat(startedItems).hasSize(1);
+
+        // the callback is served by a container which has not built the item universe, the items are listed again
+        StepGraph.forgetItemUniverses();
+        finishedItems.add(startedItems.get(0));
+        response = stepGraph.execute(model, response.getCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        assertThat(itemsComputed.get()).isEqualTo(2);
+        assertThat(startedItems).hasSize(2);
+        assertThat(startedItems).doesNotHaveDuplicates();
+        assertThat(response.getCallbackContext().getStepContexts().get(Step.APP_CREATION.name())
+                .getItemUniverseFingerprint()).isEqualTo(fingerprint);
+
+        // the items listed again differ, the step is started over with them
+        StepGraph.forgetItemUniverses();
+        discoveredComponents.remove(0);
+        response = stepGraph.execute(model, response.getCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        assertThat(itemsComputed.get()).isEqualTo(3);
+        assertThat(response.getCallbackContext().getStepContexts().get(Step.APP_CREATION.name())
+                .getItemUniverseFingerprint()).isNotEqualTo(fingerprint);
+    }
+
+    @Test
+    public void execute_restarts_step_whose_state_can_not_be_decoded() {
+        AtomicInteger itemsComputed = new AtomicInteger();
+        StepGraph stepGraph = new StepGraph(ItemUniverse.fromModels(model))
+                .step(Step.APP_CREATION,
+                        Collections.emptyList(),
+                        () -> {
+                            itemsComputed.incrementAndGet();
+                            return items("c1", "c2");
+                        },
+                        stepContext -> new TestStepWorkflow(Step.APP_CREATION, stepContext));
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, newCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        // a bitmap with an index out of the item universe
+        response.getCallbackContext().getStepContexts().get(Step.APP_CREATION.name())
+                .setUnprocessedItemBitmap(ItemUniverse.of(items("a", "b", "c", "d", "e")).encode(items("e"), new ArrayList<>()));
+        response = stepGraph.execute(model, response.getCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(itemsComputed.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_plans_items_on_first_invocation() {
+        AtomicInteger plannedItemsComputed = new AtomicInteger();
+        StepGraph plannedStepGraph = new StepGraph(ItemUniverse.fromModels(model))
+                .step(Step.APP_CREATION,
+                        Collections.emptyList(),
+                        () -> items("app"),
+                        stepContext -> new TestStepWorkflow(Step.APP_CREATION, stepContext))
+                .plannedStep(Step.COMPONENT_CREATION,
+                        Arrays.asList(Step.APP_CREATION),
+                        () -> {
+                            plannedItemsComputed.incrementAndGet();
+                            return items("c1");
+                        },
+                        stepContext -> new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext));
+
+        ProgressEvent<ResourceModel, CallbackContext> response = plannedStepGraph.execute(model, newCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        // the planned step waits for its dependency
+        assertThat(plannedItemsComputed.get()).isEqualTo(1);
+        assertThat(startedItems).containsExactly("app");
+        assertThat(response.getCallbackContext().getStepContexts())
+                .containsOnlyKeys(Step.APP_CREATION.name(), Step.COMPONENT_CREATION.name());
+
+        finishedItems.add("app");
+        response = plannedStepGraph.execute(model, response.getCallbackContext(), ExecutionBudget.forInvocation(), logger);
+
+        // the planned items are used without computing them again
+        assertThat(plannedItemsComputed.get()).isEqualTo(1);
+        assertThat(startedItems).containsExactly("app", "c1");
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(Step.COMPONENT_CREATION.name());
+    }
+
+    @Test
+    public void execute_checkpoints_when_execution_budget_is_exhausted() {
+        Map<String, StepContext> stepContexts = new HashMap<>();
+        stepContexts.putAll(runningStep(Step.COMPONENT_CREATION, "c1"));
+        CallbackContext callbackContext = CallbackContext.builder()
+                .stabilizationRetriesRemaining(10)
+                .stepContexts(stepContexts)
+                .finishedSteps(items(Step.APP_CREATION.name(), Step.LOG_PATTERN_RECONCILIATION.name()))
+                .build();
+        finishedItems.add("c1");
+
+        ProgressEvent<ResourceModel, CallbackContext> response = stepGraph.execute(model, callbackContext, new ExecutionBudget(0), logger);
+
+        // no step is executed, the running step is kept as it was for the next invocation
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(startedItems).isEmpty();
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(Step.COMPONENT_CREATION.name());
+        assertThat(response.getCallbackContext().getFinishedSteps())
+                .containsExactly(Step.APP_CREATION.name(), Step.LOG_PATTERN_RECONCILIATION.name());
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(Constants.TRANSITION_CALLBACK_DELAY_SECONDS);
+    }
+
+    @Test
+    public void step_rejects_dependency_declared_later() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new StepGraph(ItemUniverse.fromModels(model))
+                .step(Step.COMPONENT_CREATION,
+                        Arrays.asList(Step.APP_CREATION),
+                        () -> items("c1"),
+                        stepContext -> new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext)));
+    }
+
+    private static CallbackContext newCallbackContext() {
+        return CallbackContext.builder().stabilizationRetriesRemaining(10).build();
+    }
+
+    private static Map<String, StepContext> runningStep(Step step, String... processingItems) {
+        Map<String, StepContext> stepContexts = new HashMap<>();
+        stepContexts.put(step.name(), StepContext.builder()
+                .processingItems(items(processingItems))
+                .unprocessedItems(new ArrayList<>())
+                .pollAttempts(0)
+                .build());
+        return stepContexts;
+    }
+
+    private static List<String> items(String... items) {
+        return new ArrayList<>(Arrays.asList(items));
+    }
+
+    private class TestStepWorkflow extends BaseStepWorkflow {
+
+        TestStepWorkflow(Step step, StepContext stepContext) {
+            super(step, model, stepContext, proxy, applicationInsightsClient, logger);
+        }
+
+        @Override
+        protected boolean isCurrentItemProcessFinished(
+                String processingItem,
+                ResourceModel model,
+                AmazonWebServicesClientProxy proxy,
+                ApplicationInsightsClient applicationInsightsClient,
+                Logger logger) {
+            if ("fail".equals(processingItem)) {
+                throw ValidationException.builder().message("invalid item").build();
+            }
+            return finishedItems.contains(processingItem);
+        }
+
+        @Override
+        protected void startProcessNextItem(
+                String nextItemToProcess,
+                ResourceModel model,
+                AmazonWebServicesClientProxy proxy,
+                ApplicationInsightsClient applicationInsightsClient,
+                Logger logger) {
+            startedItems.add(nextItemToProcess);
+        }
+    }
+}
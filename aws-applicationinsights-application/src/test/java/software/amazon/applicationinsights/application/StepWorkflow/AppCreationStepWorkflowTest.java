@@ -4,20 +4,32 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
-import software.amazon.applicationinsights.application.CallbackContext;
+import software.amazon.applicationinsights.application.ExecutionBudget;
+import software.amazon.applicationinsights.application.StepContext;
 import software.amazon.applicationinsights.application.ResourceModel;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
 import software.amazon.awssdk.services.applicationinsights.model.ApplicationInfo;
+import software.amazon.awssdk.services.applicationinsights.model.CreateApplicationRequest;
 import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ResourceInUseException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
 import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.mockito.Mockito.mock;
 import static software.amazon.applicationinsights.application.Constants.APP_CREATION_FINISHED_LIFECYCLE;
 import static software.amazon.applicationinsights.application.Constants.CONFIGURATION_FINISHED_LIFECYCLE;
@@ -27,15 +39,13 @@ public class AppCreationStepWorkflowTest {
     @Mock
     ResourceModel model;
     @Mock
-    CallbackContext callbackContext;
+    StepContext stepContext;
     @Mock
     AmazonWebServicesClientProxy proxy;
     @Mock
     ApplicationInsightsClient applicationInsightsClient;
     @Mock
     Logger logger;
-    @Mock
-    ProgressEvent<ResourceModel, CallbackContext> nextStepInitProgressEvent;
 
     private final String RESOURCE_GROUP_NAME = "resourceGroupName";
 
@@ -55,7 +65,7 @@ public class AppCreationStepWorkflowTest {
 
         when(proxy.injectCredentialsAndInvokeV2(any(), any())).thenReturn(describeApplicationResponse);
 
-        AppCreationStepWorkflow appCreationStepWorkflow = new AppCreationStepWorkflow(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+        AppCreationStepWorkflow appCreationStepWorkflow = new AppCreationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger);
         assertTrue(appCreationStepWorkflow.isCurrentItemProcessFinished(RESOURCE_GROUP_NAME, model, proxy, applicationInsightsClient, logger));
     }
 
@@ -67,7 +77,7 @@ public class AppCreationStepWorkflowTest {
 
         when(proxy.injectCredentialsAndInvokeV2(any(), any())).thenReturn(describeApplicationResponse);
 
-        AppCreationStepWorkflow appCreationStepWorkflow = new AppCreationStepWorkflow(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+        AppCreationStepWorkflow appCreationStepWorkflow = new AppCreationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger);
         assertTrue(appCreationStepWorkflow.isCurrentItemProcessFinished(RESOURCE_GROUP_NAME, model, proxy, applicationInsightsClient, logger));
     }
 
@@ -79,7 +89,46 @@ public class AppCreationStepWorkflowTest {
 
         when(proxy.injectCredentialsAndInvokeV2(any(), any())).thenReturn(describeApplicationResponse);
 
-        AppCreationStepWorkflow appCreationStepWorkflow = new AppCreationStepWorkflow(model, callbackContext, proxy, applicationInsightsClient, logger, nextStepInitProgressEvent);
+        AppCreationStepWorkflow appCreationStepWorkflow = new AppCreationStepWorkflow(model, stepContext, proxy, applicationInsightsClient, logger);
         assertFalse(appCreationStepWorkflow.isCurrentItemProcessFinished(RESOURCE_GROUP_NAME, model, proxy, applicationInsightsClient, logger));
     }
+
+    @Test
+    public void AppCreationStepWorkflowTest_retriedStartInUse_isStarted() {
+        when(proxy.injectCredentialsAndInvokeV2(any(CreateApplicationRequest.class), any()))
+                .thenThrow(ResourceInUseException.builder().message("Application already exists").build());
+
+        ProgressEvent<ResourceModel, StepContext> response = new AppCreationStepWorkflow(
+                appModel(), appCreationContext(Collections.singletonMap(RESOURCE_GROUP_NAME, 1)), proxy, applicationInsightsClient, logger)
+                .execute(ExecutionBudget.forInvocation());
+
+        assertEquals(OperationStatus.IN_PROGRESS, response.getStatus());
+        assertEquals(Collections.singletonList(RESOURCE_GROUP_NAME), response.getCallbackContext().getProcessingItems());
+        assertNull(response.getCallbackContext().getItemRetryAttempts());
+    }
+
+    @Test
+    public void AppCreationStepWorkflowTest_firstStartInUse_fails() {
+        when(proxy.injectCredentialsAndInvokeV2(any(CreateApplicationRequest.class), any()))
+                .thenThrow(ResourceInUseException.builder().message("Application already exists").build());
+
+        ProgressEvent<ResourceModel, StepContext> response = new AppCreationStepWorkflow(
+                appModel(), appCreationContext(null), proxy, applicationInsightsClient, logger)
+                .execute(ExecutionBudget.forInvocation());
+
+        assertEquals(OperationStatus.FAILED, response.getStatus());
+        assertEquals(HandlerErrorCode.ResourceConflict, response.getErrorCode());
+    }
+
+    private ResourceModel appModel() {
+        return ResourceModel.builder().resourceGroupName(RESOURCE_GROUP_NAME).build();
+    }
+
+    private StepContext appCreationContext(Map<String, Integer> itemRetryAttempts) {
+        return StepContext.builder()
+                .unprocessedItems(new ArrayList<>(Collections.singletonList(RESOURCE_GROUP_NAME)))
+                .processingItems(new ArrayList<>())
+                .itemRetryAttempts(itemRetryAttempts == null ? null : new HashMap<>(itemRetryAttempts))
+                .build();
+    }
 }
@@ -0,0 +1,88 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import software.amazon.applicationinsights.application.ExecutionBudget;
+import software.amazon.applicationinsights.application.StepContext;
+import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.DeleteApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+public class AppDeletionStepWorkflowTest {
+
+    @Mock
+    AmazonWebServicesClientProxy proxy;
+    @Mock
+    ApplicationInsightsClient applicationInsightsClient;
+    @Mock
+    Logger logger;
+
+    private final String RESOURCE_GROUP_NAME = "resourceGroupName";
+
+    @BeforeEach
+    public void setup() {
+        applicationInsightsClient = ApplicationInsightsClient.builder().region(Region.US_EAST_1).build();
+        proxy = mock(AmazonWebServicesClientProxy.class);
+        logger = mock(Logger.class);
+    }
+
+
+    @Test
+    public void AppDeletionStepWorkflowTest_retriedStartNotFound_isStarted() {
+        when(proxy.injectCredentialsAndInvokeV2(any(DeleteApplicationRequest.class), any()))
+                .thenThrow(ResourceNotFoundException.builder().message("Application does not exist").build());
+
+        ProgressEvent<ResourceModel, StepContext> response = new AppDeletionStepWorkflow(
+                appModel(), appDeletionContext(Collections.singletonMap(RESOURCE_GROUP_NAME, 1)), proxy, applicationInsightsClient, logger)
+                .execute(ExecutionBudget.forInvocation());
+
+        assertEquals(OperationStatus.IN_PROGRESS, response.getStatus());
+        assertEquals(Collections.singletonList(RESOURCE_GROUP_NAME), response.getCallbackContext().getProcessingItems());
+        assertNull(response.getCallbackContext().getItemRetryAttempts());
+    }
+
+    @Test
+    public void AppDeletionStepWorkflowTest_firstStartNotFound_fails() {
+        when(proxy.injectCredentialsAndInvokeV2(any(DeleteApplicationRequest.class), any()))
+                .thenThrow(ResourceNotFoundException.builder().message("Application does not exist").build());
+
+        ProgressEvent<ResourceModel, StepContext> response = new AppDeletionStepWorkflow(
+                appModel(), appDeletionContext(null), proxy, applicationInsightsClient, logger)
+                .execute(ExecutionBudget.forInvocation());
+
+        assertEquals(OperationStatus.FAILED, response.getStatus());
+        assertEquals(HandlerErrorCode.NotFound, response.getErrorCode());
+    }
+
+    private ResourceModel appModel() {
+        return ResourceModel.builder().resourceGroupName(RESOURCE_GROUP_NAME).build();
+    }
+
+    private StepContext appDeletionContext(Map<String, Integer> itemRetryAttempts) {
+        return StepContext.builder()
+                .unprocessedItems(new ArrayList<>(Collections.singletonList(RESOURCE_GROUP_NAME)))
+                .processingItems(new ArrayList<>())
+                .itemRetryAttempts(itemRetryAttempts == null ? null : new HashMap<>(itemRetryAttempts))
+                .build();
+    }
+}
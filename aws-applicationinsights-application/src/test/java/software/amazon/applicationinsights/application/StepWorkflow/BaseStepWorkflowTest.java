@@ -0,0 +1,399 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.applicationinsights.application.Constants;
+import software.amazon.applicationinsights.application.ExecutionBudget;
+import software.amazon.applicationinsights.application.ExecutionBudgetExhaustedException;
+import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.Step;
+import software.amazon.applicationinsights.application.StepContext;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInsightsException;
+import software.amazon.awssdk.services.applicationinsights.model.ValidationException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+public class BaseStepWorkflowTest {
+
+    @Mock
+    private AmazonWebServicesClientProxy proxy;
+
+    @Mock
+    private ApplicationInsightsClient applicationInsightsClient;
+
+    @Mock
+    private Logger logger;
+
+    private ResourceModel model;
+
+    @BeforeEach
+    public void setup() {
+        model = ResourceModel.builder().resourceGroupName("resourceGroupName").build();
+    }
+
+    @Test
+    public void execute_starts_items_up_to_window() {
+        StepContext stepContext = StepContext.builder()
+                .unprocessedItems(items("c1", "c2", "c3", "c4", "c5", "c6", "c7"))
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(workflow.startedItems).containsExactly("c1", "c2", "c3", "c4", "c5");
+        assertThat(response.getCallbackContext().getProcessingItems()).containsExactly("c1", "c2", "c3", "c4", "c5");
+        assertThat(response.getCallbackContext().getUnprocessedItems()).containsExactly("c6", "c7");
+    }
+
+    @Test
+    public void execute_retires_finished_items_and_refills_window() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1", "c2", "c3", "c4", "c5"))
+                .unprocessedItems(items("c6", "c7"))
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>(Arrays.asList("c2", "c4")));
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(workflow.startedItems).containsExactly("c6", "c7");
+        assertThat(response.getCallbackContext().getProcessingItems()).containsExactly("c1", "c3", "c5", "c6", "c7");
+        assertThat(response.getCallbackContext().getUnprocessedItems()).isEmpty();
+    }
+
+    @Test
+    public void execute_starts_items_in_order_of_ordering_strategy() {
+        StepContext stepContext = StepContext.builder()
+                .unprocessedItems(items("c1", "c2", "c3", "c4", "c5", "c6"))
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>()) {
+            @Override
+            protected ItemOrderingStrategy getItemOrderingStrategy(ResourceModel model) {
+                return ItemOrderingStrategy.longestFirst(Comparator.comparingInt(item -> item.compareTo("c4") >= 0 ? 1 : 0));
+            }
+        };
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        // the longest items come first, items expected to take as long keep their order
+        assertThat(workflow.startedItems).containsExactly("c4", "c5", "c6", "c1", "c2");
+        assertThat(response.getCallbackContext().getUnprocessedItems()).containsExactly("c3");
+    }
+
+    @Test
+    public void execute_leaves_items_for_next_round_when_execution_budget_is_exhausted() {
+        StepContext stepContext = StepContext.builder()
+                .unprocessedItems(items("c1", "c2", "c3"))
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(new ExecutionBudget(0));
+
+        // at least one item is started so every round makes progress
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(workflow.startedItems).containsExactly("c1");
+        assertThat(response.getCallbackContext().getProcessingItems()).containsExactly("c1");
+        assertThat(response.getCallbackContext().getUnprocessedItems()).containsExactly("c2", "c3");
+    }
+
+    @Test
+    public void execute_succeeds_when_all_items_finished() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1", "c2"))
+                .unprocessedItems(new ArrayList<>())
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>(Arrays.asList("c1", "c2")));
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(workflow.startedItems).isEmpty();
+    }
+
+    @Test
+    public void execute_backs_off_when_no_item_finished() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1"))
+                .unprocessedItems(items("c2"))
+                .pollAttempts(2)
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.APP_CREATION, stepContext, new HashSet<>());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getPollAttempts()).isEqualTo(3);
+        assertThat(response.getCallbackDelaySeconds())
+                .isBetween(Step.APP_CREATION.getCallBackWaitSeconds(), Step.APP_CREATION.getMaxCallBackWaitSeconds());
+    }
+
+    @Test
+    public void execute_does_not_count_polls_within_same_invocation() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1"))
+                .pollAttempts(Step.APP_CREATION.getMaxPollAttempts())
+                .startedAtMillis(System.currentTimeMillis())
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.APP_CREATION, stepContext, new HashSet<>());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation(), false);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getPollAttempts()).isEqualTo(Step.APP_CREATION.getMaxPollAttempts());
+    }
+
+    @Test
+    public void execute_resets_backoff_when_item_finished() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1"))
+                .unprocessedItems(items("c2"))
+                .pollAttempts(2)
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.APP_CREATION, stepContext, new HashSet<>(Arrays.asList("c1")));
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getCallbackContext().getProcessingItems()).containsExactly("c2");
+        assertThat(response.getCallbackContext().getPollAttempts()).isEqualTo(0);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(Step.APP_CREATION.getCallBackWaitSeconds());
+    }
+
+    @Test
+    public void execute_fails_step_when_its_deadline_passed() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1"))
+                .unprocessedItems(items("c2"))
+                .startedAtMillis(System.currentTimeMillis() - Step.APP_CREATION.getTimeoutSeconds() * 1000L - 1000)
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.APP_CREATION, stepContext, new HashSet<>());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotStabilized);
+        assertThat(response.getMessage()).contains(Step.APP_CREATION.name()).contains("c1");
+    }
+
+    @Test
+    public void execute_fails_step_when_its_poll_attempts_run_out() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1"))
+                .pollAttempts(Step.APP_CREATION.getMaxPollAttempts())
+                .startedAtMillis(System.currentTimeMillis())
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.APP_CREATION, stepContext, new HashSet<>());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.NotStabilized);
+        assertThat(response.getMessage()).contains(Step.APP_CREATION.name());
+    }
+
+    @Test
+    public void execute_requeues_item_when_its_start_is_throttled() {
+        StepContext stepContext = StepContext.builder()
+                .unprocessedItems(items("c1", "c2", "c3"))
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+        workflow.failingItems.put("c2", throttlingException());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getProcessingItems()).containsExactly("c1");
+        assertThat(response.getCallbackContext().getUnprocessedItems()).containsExactly("c2", "c3");
+        assertThat(response.getCallbackContext().getItemRetryAttempts()).containsEntry("c2", 1);
+        assertThat(response.getCallbackContext().getRetryAfterMillis()).isGreaterThan(System.currentTimeMillis());
+        assertThat(response.getCallbackDelaySeconds()).isGreaterThanOrEqualTo(Constants.RETRY_CALLBACK_DELAY_SECONDS);
+    }
+
+    @Test
+    public void execute_keeps_item_in_flight_when_its_check_fails_with_server_error() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1"))
+                .unprocessedItems(items("c2"))
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+        workflow.failingItems.put("c1", ApplicationInsightsException.builder().statusCode(503).message("unavailable").build());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(workflow.startedItems).isEmpty();
+        assertThat(response.getCallbackContext().getProcessingItems()).containsExactly("c1");
+        assertThat(response.getCallbackContext().getUnprocessedItems()).containsExactly("c2");
+        assertThat(response.getCallbackContext().getItemRetryAttempts()).containsEntry("c1", 1);
+    }
+
+    @Test
+    public void execute_leaves_item_for_next_invocation_when_its_token_is_not_available_within_budget() {
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1"))
+                .unprocessedItems(items("c2"))
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+        workflow.failingItems.put("c1", new ExecutionBudgetExhaustedException("no token within budget"));
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(response.getCallbackContext().getProcessingItems()).containsExactly("c1", "c2");
+        assertThat(response.getCallbackContext().getItemRetryAttempts()).isNull();
+        assertThat(response.getCallbackContext().getRetryAfterMillis()).isNull();
+    }
+
+    @Test
+    public void execute_waits_for_retry_backoff_before_next_round() {
+        StepContext stepContext = StepContext.builder()
+                .unprocessedItems(items("c1"))
+                .retryAfterMillis(System.currentTimeMillis() + 10000)
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(workflow.startedItems).isEmpty();
+        assertThat(response.getCallbackContext()).isEqualTo(stepContext);
+        assertThat(response.getCallbackDelaySeconds()).isBetween(1, 10);
+    }
+
+    @Test
+    public void execute_clears_retry_attempts_once_item_started() {
+        Map<String, Integer> itemRetryAttempts = new HashMap<>();
+        itemRetryAttempts.put("c1", 3);
+        StepContext stepContext = StepContext.builder()
+                .unprocessedItems(items("c1"))
+                .itemRetryAttempts(itemRetryAttempts)
+                .retryAfterMillis(System.currentTimeMillis() - 1000)
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(workflow.startedItems).containsExactly("c1");
+        assertThat(response.getCallbackContext().getItemRetryAttempts()).isNull();
+        assertThat(response.getCallbackContext().getRetryAfterMillis()).isNull();
+    }
+
+    @Test
+    public void execute_clears_retry_attempts_once_item_checked() {
+        Map<String, Integer> itemRetryAttempts = new HashMap<>();
+        itemRetryAttempts.put("c1", 3);
+        itemRetryAttempts.put("c2", 2);
+        StepContext stepContext = StepContext.builder()
+                .processingItems(items("c1", "c2"))
+                .itemRetryAttempts(itemRetryAttempts)
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+        workflow.failingItems.put("c2", throttlingException());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        // c1 is still in flight but its check succeeded, c2 failed once more
+        assertThat(response.getCallbackContext().getProcessingItems()).containsExactly("c1", "c2");
+        assertThat(response.getCallbackContext().getItemRetryAttempts()).containsOnlyKeys("c2").containsEntry("c2", 3);
+    }
+
+    @Test
+    public void execute_fails_when_item_runs_out_of_retry_attempts() {
+        Map<String, Integer> itemRetryAttempts = new HashMap<>();
+        itemRetryAttempts.put("c1", Constants.MAX_ITEM_RETRY_ATTEMPTS);
+        StepContext stepContext = StepContext.builder()
+                .unprocessedItems(items("c1"))
+                .itemRetryAttempts(itemRetryAttempts)
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+        workflow.failingItems.put("c1", throttlingException());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+    }
+
+    @Test
+    public void execute_fails_on_non_retryable_error() {
+        StepContext stepContext = StepContext.builder()
+                .unprocessedItems(items("c1"))
+                .build();
+        TestStepWorkflow workflow = new TestStepWorkflow(Step.COMPONENT_CREATION, stepContext, new HashSet<>());
+        workflow.failingItems.put("c1", ValidationException.builder().statusCode(400).message("invalid").build());
+
+        ProgressEvent<ResourceModel, StepContext> response = workflow.execute(ExecutionBudget.forInvocation());
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.FAILED);
+        assertThat(response.getErrorCode()).isEqualTo(HandlerErrorCode.InvalidRequest);
+    }
+
+    private static RuntimeException throttlingException() {
+        return ApplicationInsightsException.builder().statusCode(400)
+                .awsErrorDetails(AwsErrorDetails.builder().errorCode("ThrottlingException").build())
+                .message("Rate exceeded")
+                .build();
+    }
+
+    private static List<String> items(String... items) {
+        return new ArrayList<>(Arrays.asList(items));
+    }
+
+    private class TestStepWorkflow extends BaseStepWorkflow {
+
+        private final Set<String> finishedItems;
+        private final List<String> startedItems = new ArrayList<>();
+        private final Map<String, RuntimeException> failingItems = new HashMap<>();
+
+        TestStepWorkflow(Step step, StepContext stepContext, Set<String> finishedItems) {
+            super(step, model, stepContext, proxy, applicationInsightsClient, logger);
+            this.finishedItems = finishedItems;
+        }
+
+        @Override
+        protected boolean isCurrentItemProcessFinished(
+                String processingItem,
+                ResourceModel model,
+                AmazonWebServicesClientProxy proxy,
+                ApplicationInsightsClient applicationInsightsClient,
+                Logger logger) {
+            if (failingItems.containsKey(processingItem)) {
+                throw failingItems.get(processingItem);
+            }
+            return finishedItems.contains(processingItem);
+        }
+
+        @Override
+        protected void startProcessNextItem(
+                String nextItemToProcess,
+                ResourceModel model,
+                AmazonWebServicesClientProxy proxy,
+                ApplicationInsightsClient applicationInsightsClient,
+                Logger logger) {
+            if (failingItems.containsKey(nextItemToProcess)) {
+                throw failingItems.get(nextItemToProcess);
+            }
+            startedItems.add(nextItemToProcess);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.applicationinsights.application.ComponentMonitoringSetting;
+import software.amazon.applicationinsights.application.ComponentConfiguration;
+import software.amazon.applicationinsights.application.CustomComponent;
+import software.amazon.applicationinsights.application.ExecutionBudget;
+import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.StepContext;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInfo;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentConfigurationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeComponentConfigurationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ResourceInUseException;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateComponentConfigurationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateComponentConfigurationResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static software.amazon.applicationinsights.application.Constants.CONFIGURATION_FINISHED_LIFECYCLE;
+import static software.amazon.applicationinsights.application.Constants.RETRY_CALLBACK_DELAY_SECONDS;
+
+public class ComponentConfigurationStepWorkflowTest {
+
+    private AmazonWebServicesClientProxy proxy;
+    private ApplicationInsightsClient applicationInsightsClient;
+    private Logger logger;
+    private ResourceModel model;
+
+    @BeforeEach
+    public void setup() {
+        applicationInsightsClient = ApplicationInsightsClient.builder().region(Region.US_EAST_1).build();
+        proxy = mock(AmazonWebServicesClientProxy.class);
+        logger = mock(Logger.class);
+        model = ResourceModel.builder()
+                .resourceGroupName("resourceGroupName")
+                .componentMonitoringSettings(Stream.of("c1", "c2", "c3")
+                        .map(componentName -> ComponentMonitoringSetting.builder()
+                                .componentName(componentName)
+                                .tier("CUSTOM")
+                                .componentConfigurationMode("CUSTOM")
+                                .customComponentConfiguration(ComponentConfiguration.builder().build())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Test
+    public void ComponentConfigurationStepWorkflowTest_submits_back_to_back_until_rejected() {
+        when(proxy.injectCredentialsAndInvokeV2(any(UpdateComponentConfigurationRequest.class), any()))
+                .thenReturn(UpdateComponentConfigurationResponse.builder().build())
+                .thenThrow(ResourceInUseException.builder().message("application is being configured").build());
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new ComponentConfigurationStepWorkflow(model,
+                StepContext.builder().unprocessedItems(Arrays.asList("c1", "c2", "c3")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(UpdateComponentConfigurationRequest.class), any());
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(progressEvent.getCallbackContext().getProcessingItems()).containsExactly("c1");
+        assertThat(progressEvent.getCallbackContext().getUnprocessedItems()).containsExactly("c2", "c3");
+        assertThat(progressEvent.getCallbackContext().getItemRetryAttempts()).containsOnlyKeys("c2");
+        assertThat(progressEvent.getCallbackContext().getRetryAfterMillis()).isNotNull();
+    }
+
+    @Test
+    public void ComponentConfigurationStepWorkflowTest_submits_components_with_most_resources_first() {
+        model.setCustomComponents(Arrays.asList(CustomComponent.builder()
+                .componentName("c3")
+                .resourceList(Arrays.asList("resource1", "resource2"))
+                .build()));
+        when(proxy.injectCredentialsAndInvokeV2(any(UpdateComponentConfigurationRequest.class), any()))
+                .thenReturn(UpdateComponentConfigurationResponse.builder().build())
+                .thenThrow(ResourceInUseException.builder().message("application is being configured").build());
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new ComponentConfigurationStepWorkflow(model,
+                StepContext.builder().unprocessedItems(Arrays.asList("c1", "c2", "c3")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        assertThat(progressEvent.getCallbackContext().getProcessingItems()).containsExactly("c3");
+        assertThat(progressEvent.getCallbackContext().getUnprocessedItems()).containsExactly("c1", "c2");
+    }
+
+    @Test
+    public void ComponentConfigurationStepWorkflowTest_finishes_configured_components_with_one_lifecycle_check() {
+        mockApplicationLifecycle(CONFIGURATION_FINISHED_LIFECYCLE);
+        mockComponentMonitored("c1", true);
+        mockComponentMonitored("c2", true);
+        mockComponentMonitored("c3", false);
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new ComponentConfigurationStepWorkflow(model,
+                StepContext.builder().processingItems(Arrays.asList("c1", "c2", "c3")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any());
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(progressEvent.getCallbackContext().getProcessingItems()).containsExactly("c3");
+    }
+
+    @Test
+    public void ComponentConfigurationStepWorkflowTest_keeps_components_submitted_since_last_callback() {
+        mockApplicationLifecycle(CONFIGURATION_FINISHED_LIFECYCLE);
+        mockComponentMonitored("c1", true);
+        mockComponentMonitored("c2", true);
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new ComponentConfigurationStepWorkflow(model,
+                StepContext.builder().processingItems(Arrays.asList("c1", "c2")).unsettledItems(Arrays.asList("c2")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation(), false);
+
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(progressEvent.getCallbackContext().getProcessingItems()).containsExactly("c2");
+        assertThat(progressEvent.getCallbackContext().getUnsettledItems()).containsExactly("c2");
+
+        // after a callback the service has picked up the component
+        progressEvent = new ComponentConfigurationStepWorkflow(model, progressEvent.getCallbackContext(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation(), true);
+
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    @Test
+    public void ComponentConfigurationStepWorkflowTest_settles_components_once_application_is_seen_being_configured() {
+        mockApplicationLifecycle("CONFIGURATION_IN_PROGRESS");
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new ComponentConfigurationStepWorkflow(model,
+                StepContext.builder().processingItems(Arrays.asList("c1")).unsettledItems(Arrays.asList("c1")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation(), false);
+
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(progressEvent.getCallbackContext().getProcessingItems()).containsExactly("c1");
+        assertThat(progressEvent.getCallbackContext().getUnsettledItems()).isNull();
+    }
+
+    @Test
+    public void ComponentConfigurationStepWorkflowTest_marks_submitted_components_unsettled() {
+        when(proxy.injectCredentialsAndInvokeV2(any(UpdateComponentConfigurationRequest.class), any()))
+                .thenReturn(UpdateComponentConfigurationResponse.builder().build());
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new ComponentConfigurationStepWorkflow(model,
+                StepContext.builder().unprocessedItems(Arrays.asList("c1", "c2", "c3")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        assertThat(progressEvent.getCallbackContext().getUnsettledItems())
+                .containsExactlyInAnyOrderElementsOf(progressEvent.getCallbackContext().getProcessingItems());
+    }
+
+    @Test
+    public void ComponentConfigurationStepWorkflowTest_backs_off_when_nothing_can_be_submitted() {
+        when(proxy.injectCredentialsAndInvokeV2(any(UpdateComponentConfigurationRequest.class), any()))
+                .thenThrow(ResourceInUseException.builder().message("application is being configured").build());
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new ComponentConfigurationStepWorkflow(model,
+                StepContext.builder().unprocessedItems(Arrays.asList("c1", "c2", "c3")).pollAttempts(1).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(progressEvent.getCallbackContext().getUnprocessedItems()).containsExactly("c1", "c2", "c3");
+        assertThat(progressEvent.getCallbackContext().getPollAttempts()).isEqualTo(2);
+        assertThat(progressEvent.getCallbackContext().getItemRetryAttempts()).containsEntry("c1", 1);
+        assertThat(progressEvent.getCallbackContext().getRetryAfterMillis()).isGreaterThan(System.currentTimeMillis());
+        assertThat(progressEvent.getCallbackDelaySeconds()).isGreaterThanOrEqualTo(RETRY_CALLBACK_DELAY_SECONDS);
+    }
+
+    private void mockApplicationLifecycle(String lifecycle) {
+        when(proxy.injectCredentialsAndInvokeV2(any(DescribeApplicationRequest.class), any()))
+                .thenReturn(DescribeApplicationResponse.builder()
+                        .applicationInfo(ApplicationInfo.builder().lifeCycle(lifecycle).build())
+                        .build());
+    }
+
+    private void mockComponentMonitored(String componentName, boolean monitor) {
+        when(proxy.injectCredentialsAndInvokeV2(
+                eq(DescribeComponentConfigurationRequest.builder()
+                        .resourceGroupName("resourceGroupName")
+                        .componentName(componentName)
+                        .build()),
+                any()))
+                .thenReturn(DescribeComponentConfigurationResponse.builder().monitor(monitor).build());
+    }
+}
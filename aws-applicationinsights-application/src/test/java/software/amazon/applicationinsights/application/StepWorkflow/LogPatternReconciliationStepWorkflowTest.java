@@ -0,0 +1,115 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.applicationinsights.application.LogPattern;
+import software.amazon.applicationinsights.application.LogPatternSet;
+import software.amazon.applicationinsights.application.ExecutionBudget;
+import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.StepContext;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.CreateLogPatternRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DeleteLogPatternRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeLogPatternRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListLogPatternsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListLogPatternsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.UpdateLogPatternRequest;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogPatternReconciliationStepWorkflowTest {
+
+    private AmazonWebServicesClientProxy proxy;
+    private ApplicationInsightsClient applicationInsightsClient;
+    private Logger logger;
+    private ResourceModel model;
+
+    @BeforeEach
+    public void setup() {
+        applicationInsightsClient = ApplicationInsightsClient.builder().region(Region.US_EAST_1).build();
+        proxy = mock(AmazonWebServicesClientProxy.class);
+        logger = mock(Logger.class);
+        // set1:new is created, set1:changed is updated, set1:removed is deleted
+        model = ResourceModel.builder()
+                .resourceGroupName("resourceGroupName")
+                .logPatternSets(Arrays.asList(LogPatternSet.builder()
+                        .patternSetName("set1")
+                        .logPatterns(Arrays.asList(
+                                LogPattern.builder().patternName("new").pattern("new-pattern").rank(1).build(),
+                                LogPattern.builder().patternName("changed").pattern("changed-pattern").rank(2).build()))
+                        .build()))
+                .build();
+    }
+
+    @Test
+    public void LogPatternReconciliationStepWorkflowTest_issues_all_calls_from_one_listing() {
+        when(proxy.injectCredentialsAndInvokeV2(any(ListLogPatternsRequest.class), any()))
+                .thenReturn(ListLogPatternsResponse.builder()
+                        .logPatterns(
+                                appLogPattern("set1", "changed", "old-pattern", 2),
+                                appLogPattern("set1", "removed", "removed-pattern", 3))
+                        .build());
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new LogPatternReconciliationStepWorkflow(model,
+                StepContext.builder().unprocessedItems(Arrays.asList("set1:removed", "set1:new", "set1:changed")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(ListLogPatternsRequest.class), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                argThat(request -> request instanceof DeleteLogPatternRequest
+                        && ((DeleteLogPatternRequest) request).patternName().equals("removed")), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                argThat(request -> request instanceof CreateLogPatternRequest
+                        && ((CreateLogPatternRequest) request).patternName().equals("new")), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(
+                argThat(request -> request instanceof UpdateLogPatternRequest
+                        && ((UpdateLogPatternRequest) request).pattern().equals("changed-pattern")), any());
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(progressEvent.getCallbackContext().getProcessingItems())
+                .containsExactly("set1:removed", "set1:new", "set1:changed");
+    }
+
+    @Test
+    public void LogPatternReconciliationStepWorkflowTest_verifies_all_items_against_paginated_listing() {
+        when(proxy.injectCredentialsAndInvokeV2(any(ListLogPatternsRequest.class), any()))
+                .thenReturn(ListLogPatternsResponse.builder()
+                        .logPatterns(appLogPattern("set1", "new", "new-pattern", 1))
+                        .nextToken("token")
+                        .build())
+                .thenReturn(ListLogPatternsResponse.builder()
+                        .logPatterns(appLogPattern("set1", "changed", "changed-pattern", 2))
+                        .build());
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new LogPatternReconciliationStepWorkflow(model,
+                StepContext.builder().processingItems(Arrays.asList("set1:removed", "set1:new", "set1:changed")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(ListLogPatternsRequest.class), any());
+        verify(proxy, never()).injectCredentialsAndInvokeV2(any(DescribeLogPatternRequest.class), any());
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    private static software.amazon.awssdk.services.applicationinsights.model.LogPattern appLogPattern(
+            String patternSetName, String patternName, String pattern, int rank) {
+        return software.amazon.awssdk.services.applicationinsights.model.LogPattern.builder()
+                .patternSetName(patternSetName)
+                .patternName(patternName)
+                .pattern(pattern)
+                .rank(rank)
+                .build();
+    }
+}
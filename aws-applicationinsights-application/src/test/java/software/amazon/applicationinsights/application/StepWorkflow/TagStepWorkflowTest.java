@@ -0,0 +1,113 @@
+package software.amazon.applicationinsights.application.StepWorkflow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.applicationinsights.application.ExecutionBudget;
+import software.amazon.applicationinsights.application.ResourceModel;
+import software.amazon.applicationinsights.application.StepContext;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.applicationinsights.ApplicationInsightsClient;
+import software.amazon.awssdk.services.applicationinsights.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.applicationinsights.model.Tag;
+import software.amazon.awssdk.services.applicationinsights.model.TagResourceRequest;
+import software.amazon.awssdk.services.applicationinsights.model.TagResourceResponse;
+import software.amazon.awssdk.services.applicationinsights.model.UntagResourceRequest;
+import software.amazon.awssdk.services.applicationinsights.model.UntagResourceResponse;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.OperationStatus;
+import software.amazon.cloudformation.proxy.ProgressEvent;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TagStepWorkflowTest {
+
+    private static final String APPLICATION_ARN = "arn:aws:applicationinsights:us-east-1:123456789012:application/resource-group/resourceGroupName";
+
+    private AmazonWebServicesClientProxy proxy;
+    private ApplicationInsightsClient applicationInsightsClient;
+    private Logger logger;
+    private ResourceModel model;
+
+    @BeforeEach
+    public void setup() {
+        applicationInsightsClient = ApplicationInsightsClient.builder().region(Region.US_EAST_1).build();
+        proxy = mock(AmazonWebServicesClientProxy.class);
+        logger = mock(Logger.class);
+        model = ResourceModel.builder()
+                .applicationARN(APPLICATION_ARN)
+                .tags(Arrays.asList(
+                        software.amazon.applicationinsights.application.Tag.builder().key("key1").value("value1").build(),
+                        software.amazon.applicationinsights.application.Tag.builder().key("key2").value("value2").build(),
+                        software.amazon.applicationinsights.application.Tag.builder().key("key3").value("value3").build()))
+                .build();
+    }
+
+    @Test
+    public void TagCreationStepWorkflowTest_tags_all_keys_with_one_call() {
+        when(proxy.injectCredentialsAndInvokeV2(any(TagResourceRequest.class), any()))
+                .thenReturn(TagResourceResponse.builder().build());
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new TagCreationStepWorkflow(model,
+                StepContext.builder().unprocessedItems(Arrays.asList("key1", "key2", "key3")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        ArgumentCaptor<TagResourceRequest> captor = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(captor.capture(), any());
+        assertThat(captor.getValue().tags()).extracting(Tag::key).containsExactlyInAnyOrder("key1", "key2", "key3");
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(progressEvent.getCallbackContext().getProcessingItems()).containsExactly("key1", "key2", "key3");
+        assertThat(progressEvent.getCallbackContext().getUnprocessedItems()).isEmpty();
+    }
+
+    @Test
+    public void TagCreationStepWorkflowTest_verifies_all_keys_with_one_listing() {
+        when(proxy.injectCredentialsAndInvokeV2(any(ListTagsForResourceRequest.class), any()))
+                .thenReturn(ListTagsForResourceResponse.builder()
+                        .tags(Tag.builder().key("key1").value("value1").build(),
+                                Tag.builder().key("key3").value("value3").build())
+                        .build());
+
+        ProgressEvent<ResourceModel, StepContext> progressEvent = new TagCreationStepWorkflow(model,
+                StepContext.builder().processingItems(Arrays.asList("key1", "key2", "key3")).build(),
+                proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(ListTagsForResourceRequest.class), any());
+        assertThat(progressEvent.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(progressEvent.getCallbackContext().getProcessingItems()).containsExactly("key2");
+    }
+
+    @Test
+    public void TagDeletionStepWorkflowTest_untags_and_verifies_all_keys_with_one_call_each() {
+        when(proxy.injectCredentialsAndInvokeV2(any(UntagResourceRequest.class), any()))
+                .thenReturn(UntagResourceResponse.builder().build());
+        when(proxy.injectCredentialsAndInvokeV2(any(ListTagsForResourceRequest.class), any()))
+                .thenReturn(ListTagsForResourceResponse.builder()
+                        .tags(Tag.builder().key("otherKey").value("otherValue").build())
+                        .build());
+
+        TagDeletionStepWorkflow startWorkflow = new TagDeletionStepWorkflow(model,
+                StepContext.builder().unprocessedItems(Arrays.asList("oldKey1", "oldKey2")).build(),
+                proxy, applicationInsightsClient, logger);
+        ProgressEvent<ResourceModel, StepContext> startEvent = startWorkflow.execute(ExecutionBudget.forInvocation());
+
+        ArgumentCaptor<UntagResourceRequest> captor = ArgumentCaptor.forClass(UntagResourceRequest.class);
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(captor.capture(), any());
+        assertThat(captor.getValue().tagKeys()).containsExactly("oldKey1", "oldKey2");
+
+        ProgressEvent<ResourceModel, StepContext> checkEvent = new TagDeletionStepWorkflow(model,
+                startEvent.getCallbackContext(), proxy, applicationInsightsClient, logger).execute(ExecutionBudget.forInvocation());
+
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(ListTagsForResourceRequest.class), any());
+        assertThat(checkEvent.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+}
@@ -0,0 +1,59 @@
+package software.amazon.applicationinsights.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketTest {
+
+    private final AtomicLong nowMillis = new AtomicLong(1000);
+
+    @Test
+    public void reserve_spaces_calls_beyond_burst_at_refill_rate() {
+        TokenBucket tokenBucket = new TokenBucket(10, 2, nowMillis::get);
+
+        assertThat(tokenBucket.reserve()).isEqualTo(0);
+        assertThat(tokenBucket.reserve()).isEqualTo(0);
+        assertThat(tokenBucket.reserve()).isEqualTo(100);
+        assertThat(tokenBucket.reserve()).isEqualTo(200);
+        assertThat(tokenBucket.getDelayedCalls()).isEqualTo(2);
+        assertThat(tokenBucket.getTotalWaitMillis()).isEqualTo(300);
+    }
+
+    @Test
+    public void reserve_refills_up_to_burst() {
+        TokenBucket tokenBucket = new TokenBucket(10, 2, nowMillis::get);
+        tokenBucket.reserve();
+        tokenBucket.reserve();
+
+        nowMillis.addAndGet(60000);
+
+        assertThat(tokenBucket.reserve()).isEqualTo(0);
+        assertThat(tokenBucket.reserve()).isEqualTo(0);
+        assertThat(tokenBucket.reserve()).isEqualTo(100);
+    }
+
+    @Test
+    public void reserve_leaves_token_when_wait_exceeds_max_wait() {
+        TokenBucket tokenBucket = new TokenBucket(10, 1, nowMillis::get);
+        tokenBucket.reserve();
+
+        assertThat(tokenBucket.reserve(50)).isEqualTo(-1);
+        assertThat(tokenBucket.acquire(50)).isFalse();
+        assertThat(tokenBucket.reserve(100)).isEqualTo(100);
+        assertThat(tokenBucket.getDelayedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void reserve_never_waits_when_disabled() {
+        TokenBucket tokenBucket = new TokenBucket(0, 1, nowMillis::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(tokenBucket.reserve()).isEqualTo(0);
+        }
+        assertThat(tokenBucket.isEnabled()).isFalse();
+        assertThat(tokenBucket.getDelayedCalls()).isEqualTo(0);
+    }
+}
@@ -1,6 +1,15 @@
 package software.amazon.applicationinsights.application;
 
 import org.junitpioneer.jupiter.SetEnvironmentVariable;
+import software.amazon.awssdk.services.applicationinsights.model.ApplicationInfo;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationRequest;
+import software.amazon.awssdk.services.applicationinsights.model.DescribeApplicationResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ListComponentsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListComponentsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ListLogPatternsRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListLogPatternsResponse;
+import software.amazon.awssdk.services.applicationinsights.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.applicationinsights.model.ListTagsForResourceResponse;
 import software.amazon.awssdk.services.applicationinsights.model.ResourceNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
@@ -13,9 +22,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Collections;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static software.amazon.applicationinsights.application.Constants.ACCOUNT_BASED_GROUPING_TYPE;
 import static software.amazon.applicationinsights.application.Constants.SHADOW_RG_PREFIX_ACCOUNT_BASED;
@@ -58,14 +71,55 @@ public class UpdateHandlerTest {
         previousResourceStateModel.setResourceGroupName(RESOURCE_GROUP_NAME);
         previousResourceStateModel.setGroupingType(ACCOUNT_BASED_GROUPING_TYPE);
 
+        // the application update has not been applied yet
+        stubApplicationState(ApplicationInfo.builder()
+                .resourceGroupName(SHADOW_RG_PREFIX_ACCOUNT_BASED + RESOURCE_GROUP_NAME)
+                .opsCenterEnabled(true)
+                .build());
+
         final ProgressEvent<ResourceModel, CallbackContext> response = updateHandler.handleRequest(proxy, request, null, logger);
 
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
         assertThat(response.getMessage()).isNull();
         assertThat(response.getResult()).isNull();
-        assertThat(response.getCallbackDelaySeconds()).isEqualTo(1);
+        assertThat(response.getCallbackDelaySeconds())
+                .isBetween(Step.APP_UPDATE.getCallBackWaitSeconds(), Step.APP_UPDATE.getMaxCallBackWaitSeconds());
         assertThat(response.getResourceModels()).isNull();
+        // planned steps wait for the application update, tags are reconciled while it is still running
+        assertThat(response.getCallbackContext().getStepContexts()).containsOnlyKeys(
+                Step.APP_UPDATE.name(),
+                Step.COMPONENT_DELETION.name(), Step.COMPONENT_CREATION.name(),
+                Step.LOG_PATTERN_RECONCILIATION.name());
+        assertThat(response.getCallbackContext().getFinishedSteps())
+                .containsExactly(Step.TAG_DELETION.name(), Step.TAG_CREATION.name());
+    }
+
+    @Test
+    public void handleRequest_app_attributes_only_update_completes_in_one_invocation() {
+
+        desiredResourceModel.setResourceGroupName(RESOURCE_GROUP_NAME);
+        desiredResourceModel.setOpsCenterEnabled(true);
+        previousResourceStateModel.setResourceGroupName(RESOURCE_GROUP_NAME);
+
+        // the application update is applied right away, there are no tags, components or log patterns
+        stubApplicationState(ApplicationInfo.builder()
+                .resourceGroupName(RESOURCE_GROUP_NAME)
+                .opsCenterEnabled(true)
+                .cweMonitorEnabled(true)
+                .autoConfigEnabled(false)
+                .build());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = updateHandler.handleRequest(proxy, request, null, logger);
+
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(desiredResourceModel);
+        // the application state is listed once to plan the update,
+        // components are listed once more for the components without monitoring settings
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(ListTagsForResourceRequest.class), any());
+        verify(proxy, times(1)).injectCredentialsAndInvokeV2(any(ListLogPatternsRequest.class), any());
+        verify(proxy, times(2)).injectCredentialsAndInvokeV2(any(ListComponentsRequest.class), any());
     }
 
     @Test
@@ -116,4 +170,20 @@ public class UpdateHandlerTest {
         assertThat(response.getResourceModel()).isNull();
         assertThat(response.getResourceModels()).isNull();
     }
+
+    private void stubApplicationState(ApplicationInfo applicationInfo) {
+        when(proxy.injectCredentialsAndInvokeV2(any(), any())).thenAnswer(invocation -> {
+            Object serviceRequest = invocation.getArgument(0);
+            if (serviceRequest instanceof DescribeApplicationRequest) {
+                return DescribeApplicationResponse.builder().applicationInfo(applicationInfo).build();
+            } else if (serviceRequest instanceof ListTagsForResourceRequest) {
+                return ListTagsForResourceResponse.builder().tags(Collections.emptyList()).build();
+            } else if (serviceRequest instanceof ListComponentsRequest) {
+                return ListComponentsResponse.builder().applicationComponentList(Collections.emptyList()).build();
+            } else if (serviceRequest instanceof ListLogPatternsRequest) {
+                return ListLogPatternsResponse.builder().logPatterns(Collections.emptyList()).build();
+            }
+            return null;
+        });
+    }
 }